@@ -0,0 +1,306 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bloom filter - a space efficient probabilistic set. {@link #mightContain(Object)} never returns false for an element that was put in the filter, but it could return true for an element that
+ * was never put (false positive). The probability of a false positive is configured when the filter is created.
+ * <p>
+ * Elements are hashed to 64 bit hash codes, from which the bit positions are derived using double hashing. The default hash function has only 32 bits of entropy for elements other than char sequences,
+ * longs and doubles (see {@link #hash64(Object)}). The filter is not thread-safe.
+ *
+ * @author Kiril Arabadzhiyski
+ *
+ * @param <V>
+ *            the element type
+ */
+public class BloomFilter<V> {
+	private static final double LN2 = Math.log(2);
+
+	private final long[] bits;
+	private final long bitSize;
+	private final int hashFunctions;
+	private final ToLongFunction<? super V> hasher;
+
+	private BloomFilter(final long bitSize, final int hashFunctions, final ToLongFunction<? super V> hasher) {
+		this.bits = new long[(int) ((bitSize + 63) >>> 6)];
+		this.bitSize = bits.length * 64L;
+		this.hashFunctions = hashFunctions;
+		this.hasher = hasher;
+	}
+
+	/**
+	 * Builder for {@link BloomFilter}
+	 *
+	 * @param <V>
+	 *            the element type
+	 */
+	public static class Builder<V> {
+		private long expectedInsertions = -1;
+		private double falsePositiveProbability = 0.01;
+		private ToLongFunction<? super V> hasher = BloomFilter::hash64;
+
+		/**
+		 * Sets the expected number of elements put in the filter. If not set, the size of the collection passed to {@link #build(Collection)} is used
+		 *
+		 * @param expectedInsertions
+		 *            the expected number of elements
+		 * @return the builder
+		 */
+		public Builder<V> expectedInsertions(final long expectedInsertions) {
+			if (expectedInsertions < 0) {
+				throw new IllegalArgumentException("Expecting expectedInsertions to be non-negative");
+			}
+			this.expectedInsertions = expectedInsertions;
+			return this;
+		}
+
+		/**
+		 * Sets the desired false positive probability. The default is <tt>0.01</tt>
+		 *
+		 * @param falsePositiveProbability
+		 *            the false positive probability, between 0 and 1 exclusive
+		 * @return the builder
+		 */
+		public Builder<V> falsePositiveProbability(final double falsePositiveProbability) {
+			if (!(falsePositiveProbability > 0.0 && falsePositiveProbability < 1.0)) {
+				throw new IllegalArgumentException("Expecting falsePositiveProbability to be between 0 and 1");
+			}
+			this.falsePositiveProbability = falsePositiveProbability;
+			return this;
+		}
+
+		/**
+		 * Sets the function calculating 64 bit hash codes of the elements. Equal elements must have equal hash codes. The default is {@link BloomFilter#hash64(Object)}
+		 *
+		 * @param hasher
+		 *            the hash function
+		 * @return the builder
+		 */
+		public Builder<V> hasher(final ToLongFunction<? super V> hasher) {
+			NullUtils.checkNotNull(hasher, "hasher cannot be null");
+			this.hasher = hasher;
+			return this;
+		}
+
+		/**
+		 * Sets the hash function to the one of <tt>comparator</tt>, so the filter is consistent with the comparator. The comparator provides only 32 bit hash codes
+		 *
+		 * @param comparator
+		 *            the hashing equity comparator
+		 * @return the builder
+		 */
+		public Builder<V> hasherOf(final HashingEquityComparator<? super V> comparator) {
+			NullUtils.checkNotNull(comparator, "comparator cannot be null");
+			this.hasher = e -> mix64(comparator.hashCode(e));
+			return this;
+		}
+
+		/**
+		 * Builds an empty bloom filter
+		 *
+		 * @return new bloom filter
+		 */
+		public BloomFilter<V> build() {
+			return build(expectedInsertions);
+		}
+
+		private BloomFilter<V> build(final long expectedInsertions) {
+			final long n = Math.max(1, expectedInsertions);
+			final long m = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (LN2 * LN2)));
+			if (m > Integer.MAX_VALUE * 64L) {
+				throw new IllegalArgumentException("Too many expected insertions: " + expectedInsertions);
+			}
+			final int k = Math.max(1, (int) Math.round((double) m / n * LN2));
+			return new BloomFilter<>(m, k, hasher);
+		}
+
+		/**
+		 * Builds a bloom filter containing the <tt>values</tt>
+		 *
+		 * @param values
+		 *            the values to be put, could be null
+		 * @return new bloom filter
+		 */
+		public BloomFilter<V> build(final Collection<? extends V> values) {
+			final BloomFilter<V> filter = build(expectedInsertions >= 0 ? expectedInsertions : ExtCollectionUtils.size(values));
+			filter.putAll(values);
+			return filter;
+		}
+	}
+
+	/**
+	 * Creates a new bloom filter builder
+	 *
+	 * @param <V>
+	 *            the element type
+	 * @return new builder
+	 */
+	public static <V> Builder<V> builder() {
+		return new Builder<>();
+	}
+
+	/**
+	 * Creates a bloom filter containing the <tt>values</tt>
+	 *
+	 * @param values
+	 *            the values, could be null
+	 * @param falsePositiveProbability
+	 *            the false positive probability, between 0 and 1 exclusive
+	 * @param <V>
+	 *            the element type
+	 * @return new bloom filter
+	 */
+	public static <V> BloomFilter<V> of(final Collection<? extends V> values, final double falsePositiveProbability) {
+		return BloomFilter.<V> builder().falsePositiveProbability(falsePositiveProbability).build(values);
+	}
+
+	/**
+	 * Calculates 64 bit hash code of an object. Char sequences are hashed char by char with 64 bit FNV-1a, longs and doubles are hashed using all their 64 bits. Other objects have their
+	 * {@link Object#hashCode()} spread to 64 bits, so they have only 32 bits of entropy and at hundreds of millions of distinct elements the 32 bit collisions raise the false positive probability
+	 * above the configured one. Use {@link Builder#hasher(ToLongFunction)} with a wider hash for such elements.
+	 *
+	 * @param o
+	 *            the object, could be null
+	 * @return 64 bit hash code
+	 */
+	public static long hash64(final Object o) {
+		if (o instanceof CharSequence) {
+			final CharSequence cs = (CharSequence) o;
+			long h = 0xcbf29ce484222325L;
+			for (int i = 0; i < cs.length(); i++) {
+				h ^= cs.charAt(i);
+				h *= 0x100000001b3L;
+			}
+			return mix64(h);
+		} else if (o instanceof Long) {
+			return mix64((Long) o);
+		} else if (o instanceof Double) {
+			return mix64(Double.doubleToLongBits((Double) o));
+		}
+		return mix64(Objects.hashCode(o));
+	}
+
+	private static long mix64(final long value) {
+		long h = value * 0x9E3779B97F4A7C15L;
+		h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+		return h ^ (h >>> 31);
+	}
+
+	/**
+	 * Puts an element in the filter
+	 *
+	 * @param element
+	 *            the element
+	 * @return true if the filter has changed, i.e. the element was definitely not in the filter before
+	 */
+	public boolean put(final V element) {
+		final long h1 = hasher.applyAsLong(element);
+		final long h2 = mix64(h1) | 1L;
+		boolean changed = false;
+		for (int i = 0; i < hashFunctions; i++) {
+			final long index = ((h1 + i * h2) >>> 1) % bitSize;
+			final int word = (int) (index >>> 6);
+			final long mask = 1L << index;
+			if ((bits[word] & mask) == 0) {
+				bits[word] |= mask;
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Puts all elements in the filter
+	 *
+	 * @param elements
+	 *            the elements, could be null
+	 */
+	public void putAll(final Iterable<? extends V> elements) {
+		if (elements != null) {
+			for (final V e : elements) {
+				put(e);
+			}
+		}
+	}
+
+	/**
+	 * Checks if the element might have been put in the filter
+	 *
+	 * @param element
+	 *            the element
+	 * @return false if the element was definitely not put in the filter, true if it probably was
+	 */
+	public boolean mightContain(final V element) {
+		final long h1 = hasher.applyAsLong(element);
+		final long h2 = mix64(h1) | 1L;
+		for (int i = 0; i < hashFunctions; i++) {
+			final long index = ((h1 + i * h2) >>> 1) % bitSize;
+			if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the number of bits in the filter
+	 *
+	 * @return the number of bits
+	 */
+	public long bitSize() {
+		return bitSize;
+	}
+
+	/**
+	 * Gets the number of hash functions (bits set per element)
+	 *
+	 * @return the number of hash functions
+	 */
+	public int hashFunctions() {
+		return hashFunctions;
+	}
+
+	/**
+	 * Estimates the current false positive probability based on the number of set bits
+	 *
+	 * @return the current false positive probability
+	 */
+	public double expectedFalsePositiveProbability() {
+		long setBits = 0;
+		for (final long word : bits) {
+			setBits += Long.bitCount(word);
+		}
+		return Math.pow((double) setBits / bitSize, hashFunctions);
+	}
+
+	/**
+	 * Clears the filter
+	 */
+	public void clear() {
+		Arrays.fill(bits, 0L);
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Result of comparing two collections by key - the added, removed and changed elements
+ *
+ * @author Kiril Arabadzhiyski
+ *
+ * @param <V>
+ *            element type
+ * @see ExtCollectionUtils#diff(java.util.Collection, java.util.Collection, java.util.function.Function, EquityComparator)
+ */
+public class CollectionDiff<V> {
+	private final List<V> added;
+	private final List<V> removed;
+	private final List<Pair<V, V>> changed;
+
+	/**
+	 * Creates a new collection diff
+	 *
+	 * @param added
+	 *            the added elements
+	 * @param removed
+	 *            the removed elements
+	 * @param changed
+	 *            pairs of old and new version of the changed elements
+	 */
+	public CollectionDiff(final List<V> added, final List<V> removed, final List<Pair<V, V>> changed) {
+		NullUtils.checkNotNull(added, "added cannot be null");
+		NullUtils.checkNotNull(removed, "removed cannot be null");
+		NullUtils.checkNotNull(changed, "changed cannot be null");
+		this.added = Collections.unmodifiableList(added);
+		this.removed = Collections.unmodifiableList(removed);
+		this.changed = Collections.unmodifiableList(changed);
+	}
+
+	/**
+	 * Gets the elements of the new collection, whose key is not present in the old collection
+	 *
+	 * @return the added elements in the order of the new collection
+	 */
+	public List<V> getAdded() {
+		return added;
+	}
+
+	/**
+	 * Gets the elements of the old collection, whose key is not present in the new collection
+	 *
+	 * @return the removed elements in the order of the old collection
+	 */
+	public List<V> getRemoved() {
+		return removed;
+	}
+
+	/**
+	 * Gets the elements present in both collections, which are not equal
+	 *
+	 * @return pairs of old (left) and new (right) version of the changed elements in the order of the new collection
+	 */
+	public List<Pair<V, V>> getChanged() {
+		return changed;
+	}
+
+	/**
+	 * Checks if there are no differences
+	 *
+	 * @return true if there are no added, removed or changed elements
+	 */
+	public boolean isEmpty() {
+		return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "CollectionDiff [added=" + added + ", removed=" + removed + ", changed=" + changed + "]";
+	}
+}
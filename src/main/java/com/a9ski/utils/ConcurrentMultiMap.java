@@ -0,0 +1,390 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe multi-map, mapping each key to a collection of values. Keys are stored in a {@link ConcurrentHashMap} and the values of each key in a lock-free {@link ConcurrentLinkedQueue}, so writers
+ * adding values to existing keys do not block each other. Only adding the first value of a key takes the lock of the key's bin.
+ * <p>
+ * Removing a key detaches its queue and drains it. A writer which finds that its queue was detached takes its value back and retries with a new queue, unless the value was already drained. This way
+ * a value written concurrently with the removal of its key is either returned by {@link #remove(Object)} or kept in the multi-map, but never lost.
+ * <p>
+ * Read operations are weakly consistent: they reflect the state of the map at some point at or since their start.
+ *
+ * @author Kiril Arabadzhiyski
+ *
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ */
+public class ConcurrentMultiMap<K, V> {
+	private static final long PARALLELISM_THRESHOLD = 1024;
+
+	private final ConcurrentHashMap<K, Values<V>> map;
+
+	/**
+	 * Values of a single key, counted with a {@link LongAdder}, so counting doesn't traverse the queue
+	 *
+	 * @param <V>
+	 *            the value type
+	 */
+	private static final class Values<V> extends ConcurrentLinkedQueue<V> {
+		private static final long serialVersionUID = 1L;
+
+		private final LongAdder count = new LongAdder();
+		private volatile boolean detached;
+
+		private boolean retract(final Object value) {
+			// equal values are interchangeable, so it doesn't matter which one of them is removed
+			if (remove(value)) {
+				count.decrement();
+				return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Creates a new empty multi-map
+	 */
+	public ConcurrentMultiMap() {
+		map = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Creates a new empty multi-map able to hold <tt>expectedKeys</tt> keys without resizing
+	 *
+	 * @param expectedKeys
+	 *            expected number of keys
+	 */
+	public ConcurrentMultiMap(final int expectedKeys) {
+		map = new ConcurrentHashMap<>(expectedKeys);
+	}
+
+	private ConcurrentMultiMap(final Map<K, List<V>> groups) {
+		map = new ConcurrentHashMap<>(groups.size());
+		groups.forEach((key, values) -> {
+			final Values<V> queue = new Values<>();
+			queue.addAll(values);
+			queue.count.add(values.size());
+			map.put(key, queue);
+		});
+	}
+
+	/**
+	 * Creates a collector grouping the elements by key into a new multi-map. Each chunk of a parallel stream is grouped into its own map without locking and the chunk groups are merged, so the
+	 * values of each key keep the encounter order.
+	 *
+	 * @param keyExtractor
+	 *            function extracting the key of an element, must not return null
+	 * @param <K>
+	 *            the key type
+	 * @param <V>
+	 *            the value type
+	 * @return collector grouping the elements into a new multi-map
+	 */
+	public static <K, V> Collector<V, ?, ConcurrentMultiMap<K, V>> groupingBy(final Function<? super V, ? extends K> keyExtractor) {
+		NullUtils.checkNotNull(keyExtractor, "keyExtractor cannot be null");
+		//@formatter:off
+		return Collector.<V, Map<K, List<V>>, ConcurrentMultiMap<K, V>> of(
+				HashMap::new,
+				(groups, value) -> {
+					final K key = keyExtractor.apply(value);
+					NullUtils.checkNotNull(key, "key cannot be null");
+					groups.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+				},
+				(left, right) -> {
+					right.forEach((key, values) -> left.merge(key, values, (l, r) -> {
+						l.addAll(r);
+						return l;
+					}));
+					return left;
+				},
+				ConcurrentMultiMap::new);
+		//@formatter:on
+	}
+
+	private Values<V> values(final K key) {
+		final Values<V> values = map.get(key);
+		return (values != null ? values : map.computeIfAbsent(key, k -> new Values<>()));
+	}
+
+	/**
+	 * Adds a value to the key
+	 *
+	 * @param key
+	 *            the key, must not be null
+	 * @param value
+	 *            the value, must not be null
+	 */
+	public void put(final K key, final V value) {
+		while (true) {
+			final Values<V> values = values(key);
+			values.add(value);
+			values.count.increment();
+			if (!values.detached || !values.retract(value)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Adds values to the key
+	 *
+	 * @param key
+	 *            the key, must not be null
+	 * @param values
+	 *            the values, must not contain nulls. If null or empty nothing is added
+	 */
+	public void putAll(final K key, final Collection<? extends V> values) {
+		Collection<? extends V> pending = values;
+		while (ExtCollectionUtils.isNotEmpty(pending)) {
+			final Values<V> queue = values(key);
+			queue.addAll(pending);
+			queue.count.add(pending.size());
+			if (!queue.detached) {
+				return;
+			}
+			final List<V> retracted = new ArrayList<>();
+			for (final V value : pending) {
+				if (queue.retract(value)) {
+					retracted.add(value);
+				}
+			}
+			pending = retracted;
+		}
+	}
+
+	/**
+	 * Gets a read-only live view of the values of <tt>key</tt>
+	 *
+	 * @param key
+	 *            the key
+	 * @return read-only view of the values of <tt>key</tt> or empty collection if there is no such key
+	 */
+	public Collection<V> get(final Object key) {
+		final Values<V> values = map.get(key);
+		return (values != null ? Collections.unmodifiableCollection(values) : Collections.emptyList());
+	}
+
+	/**
+	 * Removes the key and its values
+	 *
+	 * @param key
+	 *            the key
+	 * @return the removed values or empty collection if there was no such key
+	 */
+	public Collection<V> remove(final Object key) {
+		final Values<V> values = map.remove(key);
+		if (values == null) {
+			return Collections.emptyList();
+		}
+		values.detached = true;
+		final List<V> removed = new ArrayList<>();
+		for (V value = values.poll(); value != null; value = values.poll()) {
+			removed.add(value);
+		}
+		return removed;
+	}
+
+	/**
+	 * Checks if the multi-map contains <tt>key</tt>
+	 *
+	 * @param key
+	 *            the key
+	 * @return true if the multi-map contains <tt>key</tt>
+	 */
+	public boolean containsKey(final Object key) {
+		return map.containsKey(key);
+	}
+
+	/**
+	 * Gets a live view of the keys
+	 *
+	 * @return the keys
+	 */
+	public Set<K> keySet() {
+		return Collections.unmodifiableSet(map.keySet());
+	}
+
+	/**
+	 * Gets the number of keys
+	 *
+	 * @return the number of keys
+	 */
+	public int size() {
+		return map.size();
+	}
+
+	/**
+	 * Checks if the multi-map is empty
+	 *
+	 * @return true if there are no keys
+	 */
+	public boolean isEmpty() {
+		return map.isEmpty();
+	}
+
+	/**
+	 * Counts the values of all keys. Each key keeps a count of its values, so the time depends on the number of keys, not on the number of values. Large maps are counted in parallel
+	 *
+	 * @return the total number of values
+	 */
+	public long valueCount() {
+		return map.reduceValuesToLong(PARALLELISM_THRESHOLD, values -> values.count.sum(), 0L, Long::sum);
+	}
+
+	/**
+	 * Removes all keys
+	 */
+	public void clear() {
+		map.keySet().forEach(this::remove);
+	}
+
+	/**
+	 * Gets a read-only live view of the multi-map, which could be passed to {@link ExtCollectionUtils#combineValues(Map, Supplier)}. Both the map and the value collections are read-only.
+	 *
+	 * @return read-only live view of the multi-map
+	 */
+	public Map<K, Collection<V>> asMap() {
+		return new AbstractMap<K, Collection<V>>() {
+			@Override
+			public Set<Entry<K, Collection<V>>> entrySet() {
+				return new AbstractSet<Entry<K, Collection<V>>>() {
+					@Override
+					public Iterator<Entry<K, Collection<V>>> iterator() {
+						final Iterator<Entry<K, Values<V>>> it = map.entrySet().iterator();
+						return new Iterator<Entry<K, Collection<V>>>() {
+							@Override
+							public boolean hasNext() {
+								return it.hasNext();
+							}
+
+							@Override
+							public Entry<K, Collection<V>> next() {
+								final Entry<K, Values<V>> e = it.next();
+								return new SimpleImmutableEntry<>(e.getKey(), Collections.unmodifiableCollection(e.getValue()));
+							}
+						};
+					}
+
+					@Override
+					public int size() {
+						return map.size();
+					}
+				};
+			}
+
+			@Override
+			public Collection<V> get(final Object key) {
+				final Values<V> values = map.get(key);
+				return (values != null ? Collections.unmodifiableCollection(values) : null);
+			}
+
+			@Override
+			public boolean containsKey(final Object key) {
+				return map.containsKey(key);
+			}
+
+			@Override
+			public int size() {
+				return map.size();
+			}
+		};
+	}
+
+	/**
+	 * Creates a snapshot of the multi-map. The snapshot is a {@link HashMap} with an {@link ArrayList} of values for each key and it is not affected by later modifications
+	 *
+	 * @return snapshot of the multi-map
+	 */
+	public Map<K, List<V>> snapshot() {
+		final Map<K, List<V>> snapshot = new HashMap<>(ExtCollectionUtils.hashCapacity(map.size()));
+		map.forEach((k, values) -> snapshot.put(k, new ArrayList<>(values)));
+		return snapshot;
+	}
+
+	/**
+	 * Returns a parallel stream of the values of all keys
+	 *
+	 * @return parallel stream of the values of all keys
+	 */
+	public Stream<V> parallelValues() {
+		return map.values().parallelStream().flatMap(Collection::stream);
+	}
+
+	/**
+	 * Combines the values of all keys into a new single collection
+	 *
+	 * @param collectionFactory
+	 *            the new collection factory
+	 * @param <C>
+	 *            collection type
+	 * @return new collection containing the values of all keys
+	 * @see ExtCollectionUtils#combineValues(Map, Supplier)
+	 */
+	public <C extends Collection<V>> C combineValues(final Supplier<C> collectionFactory) {
+		return ExtCollectionUtils.combineValues(map, collectionFactory);
+	}
+
+	/**
+	 * Combines the values of all keys into a new single collection, created with the total number of values as capacity
+	 *
+	 * @param collectionFactory
+	 *            the new collection factory, accepting the expected number of elements
+	 * @param <C>
+	 *            collection type
+	 * @return new collection containing the values of all keys
+	 * @see ExtCollectionUtils#combineValuesSized(Map, IntFunction)
+	 */
+	public <C extends Collection<V>> C combineValuesSized(final IntFunction<C> collectionFactory) {
+		return ExtCollectionUtils.combineValuesSized(map, collectionFactory);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return map.toString();
+	}
+}
@@ -20,6 +20,7 @@
 package com.a9ski.utils;
 
 import java.lang.reflect.Array;
+import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -32,9 +33,13 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
 import java.util.RandomAccess;
 import java.util.Set;
 import java.util.SortedMap;
@@ -42,22 +47,221 @@ import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import org.apache.commons.lang3.tuple.Pair;
+
+import com.a9ski.utils.persistent.Persistent;
+
 public class ExtCollectionUtils {
 
+	private static final long MAP_PARALLELISM_THRESHOLD = 10_000;
+
+	private static final int RADIX_PARALLEL_THRESHOLD = 1 << 16;
+
+	/**
+	 * Upper bound of the initial capacity of buffers presized from a caller supplied bound (like <tt>k</tt> or <tt>batchSize</tt>), which could be much larger than the actual number of elements
+	 */
+	private static final int MAX_INITIAL_CAPACITY = 1024;
+
+	private static final HashingEquityComparator<Object> EQUALS_EQUITY_COMPARATOR = new HashingEquityComparator<Object>() {
+		@Override
+		public boolean equals(final Object o1, final Object o2) {
+			return Objects.equals(o1, o2);
+		}
+
+		@Override
+		public int hashCode(final Object o) {
+			return Objects.hashCode(o);
+		}
+	};
+
+	/**
+	 * Wraps an element, so it can be stored in hash based collections using the {@link HashingEquityComparator} equity and hash code
+	 *
+	 * @param <V>
+	 *            the element type
+	 */
+	private static final class HashedElement<V> {
+		private final V value;
+		private final HashingEquityComparator<V> comparator;
+		private final int hash;
+
+		private HashedElement(final V value, final HashingEquityComparator<V> comparator) {
+			this.value = value;
+			this.comparator = comparator;
+			this.hash = comparator.hashCode(value);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof HashedElement)) {
+				return false;
+			}
+			@SuppressWarnings("unchecked")
+			final HashedElement<V> other = (HashedElement<V>) obj;
+			return hash == other.hash && comparator.equals(value, other.value);
+		}
+	}
+
 	/**
-	 * Creates a new equity comparator that uses {@link java.util.Objects#equals}
+	 * Returns an equity comparator that uses {@link java.util.Objects#equals}. The returned comparator is a {@link HashingEquityComparator} that uses {@link java.util.Objects#hashCode}
 	 *
 	 * @param <V>
 	 *            collection value type
-	 * @return new equity comparator that uses {@link java.util.Objects#equals}
+	 * @return equity comparator that uses {@link java.util.Objects#equals}
 	 */
+	@SuppressWarnings("unchecked")
 	public static <V> EquityComparator<V> equalsEquityComparator() {
-		return (a, b) -> Objects.equals(a, b);
+		return (EquityComparator<V>) EQUALS_EQUITY_COMPARATOR;
+	}
+
+	/**
+	 * Creates a new hashing equity comparator from a equity comparator and a hash function. The hash function must be consistent with the <tt>comparator</tt>
+	 *
+	 * @param comparator
+	 *            the equity comparator
+	 * @param hashFunction
+	 *            the hash function
+	 * @param <V>
+	 *            collection value type
+	 * @return new hashing equity comparator
+	 */
+	public static <V> HashingEquityComparator<V> hashingEquityComparator(final EquityComparator<V> comparator, final ToIntFunction<V> hashFunction) {
+		NullUtils.checkNotNull(comparator, "comparator must not be null");
+		NullUtils.checkNotNull(hashFunction, "hashFunction must not be null");
+		return new HashingEquityComparator<V>() {
+			@Override
+			public boolean equals(final V o1, final V o2) {
+				return comparator.equals(o1, o2);
+			}
+
+			@Override
+			public int hashCode(final V o) {
+				return hashFunction.applyAsInt(o);
+			}
+		};
+	}
+
+	/**
+	 * Returns the map as {@link ConcurrentHashMap} if it is a concurrent hash map large enough to benefit from parallel bulk operations
+	 *
+	 * @param map
+	 *            the map
+	 * @param <K>
+	 *            key type
+	 * @param <V>
+	 *            value type
+	 * @return the map cast to {@link ConcurrentHashMap} or null if it is not a large concurrent hash map
+	 */
+	private static <K, V> ConcurrentHashMap<K, V> largeConcurrentHashMap(final Map<K, V> map) {
+		if (map instanceof ConcurrentHashMap && ((ConcurrentHashMap<K, V>) map).mappingCount() >= MAP_PARALLELISM_THRESHOLD) {
+			return (ConcurrentHashMap<K, V>) map;
+		}
+		return null;
+	}
+
+	/**
+	 * Gets <tt>comparator</tt> as {@link HashingEquityComparator} if it supports hashing
+	 *
+	 * @param comparator
+	 *            the equity comparator, could be null
+	 * @param <V>
+	 *            compared value type
+	 * @return the hashing comparator or null if <tt>comparator</tt> doesn't support hashing
+	 */
+	private static <V> HashingEquityComparator<V> hashing(final EquityComparator<V> comparator) {
+		return (comparator instanceof HashingEquityComparator ? (HashingEquityComparator<V>) comparator : null);
+	}
+
+	/**
+	 * Creates a predicate that checks if an element is contained in <tt>values</tt>, using a hash lookup built from <tt>values</tt>
+	 *
+	 * @param values
+	 *            the values, could be null
+	 * @param comparator
+	 *            the hashing equity comparator
+	 * @param <V>
+	 *            collection value type
+	 * @return predicate returning true if the tested element is contained in <tt>values</tt>
+	 */
+	private static <V> Predicate<V> hashedContains(final Collection<V> values, final HashingEquityComparator<V> comparator) {
+		if (isEmpty(values)) {
+			return e -> false;
+		} else if (comparator == EQUALS_EQUITY_COMPARATOR) {
+			final Set<V> set = (values instanceof HashSet ? (Set<V>) values : new HashSet<>(values));
+			return set::contains;
+		} else {
+			final Set<HashedElement<V>> set = new HashSet<>(hashCapacity(values.size()));
+			values.forEach(v -> set.add(new HashedElement<>(v, comparator)));
+			return e -> set.contains(new HashedElement<>(e, comparator));
+		}
+	}
+
+	/**
+	 * Calculates the initial capacity of a {@link HashMap} or {@link HashSet}, so it can hold <tt>expectedSize</tt> elements without rehashing
+	 *
+	 * @param expectedSize
+	 *            the expected number of elements
+	 * @return the initial capacity
+	 */
+	public static int hashCapacity(final int expectedSize) {
+		return Math.max((int) (expectedSize / .75f) + 1, 16);
+	}
+
+	/**
+	 * Returns a capacity-aware factory that creates HashSets able to hold the requested number of elements without rehashing
+	 *
+	 * @param <V>
+	 *            collection value type
+	 * @return factory that creates presized HashSets
+	 */
+	public static <V> IntFunction<HashSet<V>> hashSetFactory() {
+		return expectedSize -> new HashSet<>(hashCapacity(expectedSize));
+	}
+
+	/**
+	 * Returns a capacity-aware factory that creates HashMaps able to hold the requested number of entries without rehashing
+	 *
+	 * @param <K>
+	 *            key type
+	 * @param <V>
+	 *            value type
+	 * @return factory that creates presized HashMaps
+	 */
+	public static <K, V> IntFunction<HashMap<K, V>> hashMapFactory() {
+		return expectedSize -> new HashMap<>(hashCapacity(expectedSize));
 	}
 
 	/**
@@ -272,6 +476,70 @@ public class ExtCollectionUtils {
 		}
 	}
 
+	/**
+	 * Combines a non null values of a map of collections into a new single collection. The collection is created with the total number of values as capacity.
+	 *
+	 * @param map
+	 *            the map of collections
+	 * @param collectionFactory
+	 *            the new collection factory, accepting the expected number of elements
+	 * @param <V>
+	 *            collection value type
+	 * @param <C>
+	 *            collection type
+	 * @return a new collection that contains all non null values of the map
+	 */
+	public static <V, C extends Collection<V>> C combineValuesSized(final Map<?, ? extends Collection<V>> map, final IntFunction<C> collectionFactory) {
+		if (map != null) {
+			return combineSized(map.values(), collectionFactory);
+		} else {
+			return collectionFactory.apply(0);
+		}
+	}
+
+	/**
+	 * Combines a non null values of a collection-of-collections into a new single collection. The collection is created with the total number of values as capacity.
+	 *
+	 * @param collection
+	 *            the collection-of-collections
+	 * @param collectionFactory
+	 *            the new collection factory, accepting the expected number of elements
+	 * @param <V>
+	 *            collection value type
+	 * @param <C>
+	 *            collection type
+	 * @return a new collection that contains all non null values of collection-of-collections
+	 */
+	public static <V, C extends Collection<V>> C combineSized(final Collection<? extends Collection<V>> collection, final IntFunction<C> collectionFactory) {
+		final Collection<? extends Collection<V>> collections = defaultCollection(collection);
+		final int total = collections.stream().filter(s -> s != null).mapToInt(Collection::size).sum();
+		final C allValues = collectionFactory.apply(total);
+		collections.stream().filter(s -> s != null).forEach(s -> allValues.addAll(s));
+		return allValues;
+	}
+
+	/**
+	 * Combines a non null values of a collection-of-collections into a new single collection. The collection is created with the total number of values as capacity.
+	 *
+	 * @param collectionFactory
+	 *            the new collection factory, accepting the expected number of elements
+	 * @param collections
+	 *            the collection-of-collections
+	 * @param <V>
+	 *            collection value type
+	 * @param <C>
+	 *            collection type
+	 * @return a new collection that contains all non null values of collection-of-collections
+	 */
+	@SafeVarargs
+	public static <V, C extends Collection<V>> C combineSized(final IntFunction<C> collectionFactory, final Collection<V>... collections) {
+		if (collections != null) {
+			return combineSized(Arrays.asList(collections), collectionFactory);
+		} else {
+			return collectionFactory.apply(0);
+		}
+	}
+
 	/**
 	 * Replaces null values inside the map with <tt>newNullValue</tt>
 	 *
@@ -285,11 +553,14 @@ public class ExtCollectionUtils {
 	 *            value type
 	 */
 	public static <K, V> void replaceNullValuesWith(final Map<K, V> map, final V newNullValue) {
-		//@formatter:off
-		map.entrySet().stream()
-			.filter(entry -> entry.getValue() == null)
-			.forEach(entry -> entry.setValue(newNullValue));
-		//@formatter:on
+		// ConcurrentHashMap doesn't permit null values, so there is nothing to replace
+		if (newNullValue != null && isNotEmpty(map) && !(map instanceof ConcurrentHashMap)) {
+			for (final Map.Entry<K, V> entry : map.entrySet()) {
+				if (entry.getValue() == null) {
+					entry.setValue(newNullValue);
+				}
+			}
+		}
 	}
 
 	/**
@@ -364,9 +635,14 @@ public class ExtCollectionUtils {
 		if (index < 0) {
 			throw new IllegalArgumentException("Expecting index to be greater or equals to 0");
 		}
-		int ind = index;
 		V result = defaultValue;
-		if (collection != null) {
+		if (collection instanceof List && collection instanceof RandomAccess) {
+			final List<V> list = (List<V>) collection;
+			if (index < list.size()) {
+				result = list.get(index);
+			}
+		} else if (collection != null) {
+			int ind = index;
 			final Iterator<V> it = collection.iterator();
 			while (ind > 0 && it.hasNext()) {
 				it.next();
@@ -380,7 +656,8 @@ public class ExtCollectionUtils {
 	}
 
 	/**
-	 * Sets the Nth element. If the index is greater than the list size, elements with <tt>defaultValue</tt> are added
+	 * Sets the Nth element. If the index is greater than the list size, elements with <tt>defaultValue</tt> are added. If the list is a {@link SparseList} with the same default value, the list is
+	 * only resized and the added elements are not allocated.
 	 *
 	 * @param list
 	 *            the list
@@ -395,8 +672,13 @@ public class ExtCollectionUtils {
 	 */
 	public static <V> void setN(final List<V> list, final int index, final V value, final V defaultValue) {
 		if (list != null) {
-			while (list.size() <= index) {
-				list.add(defaultValue);
+			final int size = list.size();
+			if (size <= index) {
+				if (list instanceof SparseList && Objects.equals(((SparseList<V>) list).getDefaultValue(), defaultValue)) {
+					((SparseList<V>) list).setSize(index + 1);
+				} else {
+					list.addAll(Collections.nCopies(index - size + 1, defaultValue));
+				}
 			}
 			list.set(index, value);
 		}
@@ -519,6 +801,70 @@ public class ExtCollectionUtils {
 		}
 	}
 
+	/**
+	 * Creates a new collection populated with the <tt>values</tt>. The collection is created with the number of <tt>values</tt> as capacity.
+	 *
+	 * @param values
+	 *            the initial values
+	 * @param collectionFactory
+	 *            the new collection factory, accepting the expected number of elements
+	 * @param emptyCollection
+	 *            the collection returned if <tt>values</tt> is null
+	 * @param <V>
+	 *            collection value type
+	 * @param <C>
+	 *            collection type
+	 * @return a new collection populated with the <tt>values</tt> or <tt>emptyCollection</tt> if <tt>values</tt> is null
+	 */
+	public static <V, C extends Collection<V>> C collectionSized(final Collection<V> values, final IntFunction<C> collectionFactory, final C emptyCollection) {
+		if (values != null) {
+			final C c = collectionFactory.apply(values.size());
+			c.addAll(values);
+			return c;
+		} else {
+			return emptyCollection;
+		}
+	}
+
+	/**
+	 * Creates a new collection populated with the <tt>values</tt>. The collection is created with the number of <tt>values</tt> as capacity.
+	 *
+	 * @param values
+	 *            the initial values
+	 * @param collectionFactory
+	 *            the new collection factory, accepting the expected number of elements
+	 * @param <V>
+	 *            collection value type
+	 * @param <C>
+	 *            collection type
+	 * @return a new collection populated with the <tt>values</tt>
+	 */
+	public static <V, C extends Collection<V>> C collectionSized(final Collection<V> values, final IntFunction<C> collectionFactory) {
+		return (values != null ? collectionSized(values, collectionFactory, null) : collectionFactory.apply(0));
+	}
+
+	/**
+	 * Creates a new collection populated with the <tt>values</tt>. The collection is created with the number of <tt>values</tt> as capacity.
+	 *
+	 * @param collectionFactory
+	 *            the new collection factory, accepting the expected number of elements
+	 * @param values
+	 *            the initial values
+	 * @param <V>
+	 *            collection value type
+	 * @param <C>
+	 *            collection type
+	 * @return a new collection populated with the <tt>values</tt>
+	 */
+	@SafeVarargs
+	public static <V, C extends Collection<V>> C collectionSized(final IntFunction<C> collectionFactory, final V... values) {
+		if (values != null) {
+			return collectionSized(Arrays.asList(values), collectionFactory);
+		} else {
+			return collectionFactory.apply(0);
+		}
+	}
+
 	/**
 	 * Returns a HashSet initialized with <tt>items</tt>
 	 *
@@ -530,7 +876,11 @@ public class ExtCollectionUtils {
 	 */
 	@SafeVarargs
 	public static <V> Set<V> toSet(final V... items) {
-		return collection(HashSet::new, new HashSet<>(), items);
+		if (items != null) {
+			return collectionSized(Arrays.asList(items), hashSetFactory());
+		} else {
+			return new HashSet<>();
+		}
 	}
 
 	/**
@@ -543,7 +893,7 @@ public class ExtCollectionUtils {
 	 * @return HashSet initialized with <tt>items</tt>
 	 */
 	public static <V> Set<V> toSet(final Collection<V> items) {
-		return collection(items, HashSet::new, new HashSet<>());
+		return collectionSized(items, hashSetFactory(), new HashSet<>());
 	}
 
 	/**
@@ -557,7 +907,11 @@ public class ExtCollectionUtils {
 	 */
 	@SafeVarargs
 	public static <V> List<V> toList(final V... items) {
-		return collection(ArrayList::new, new ArrayList<>(), items);
+		if (items != null) {
+			return collectionSized(Arrays.asList(items), ArrayList::new);
+		} else {
+			return new ArrayList<>();
+		}
 	}
 
 	/**
@@ -570,7 +924,7 @@ public class ExtCollectionUtils {
 	 * @return HashSet initialized with <tt>items</tt>
 	 */
 	public static <V> List<V> toList(final Collection<V> items) {
-		return collection(items, ArrayList::new, new ArrayList<>());
+		return collectionSized(items, ArrayList::new, new ArrayList<>());
 	}
 
 	/**
@@ -641,6 +995,16 @@ public class ExtCollectionUtils {
 	 * @return the index of the element or -1 if there is no such element
 	 */
 	public static <D> int indexOf(final Collection<D> list, final D element, final int startIndex, final EquityComparator<D> comparator) {
+		if (list instanceof List && list instanceof RandomAccess) {
+			final List<D> randomAccessList = (List<D>) list;
+			final int size = randomAccessList.size();
+			for (int i = Math.max(startIndex, 0); i < size; i++) {
+				if (comparator.equals(element, randomAccessList.get(i))) {
+					return i;
+				}
+			}
+			return -1;
+		}
 		final Iterator<D> it = defaultCollection(list).iterator();
 		int found = -1;
 		int ind = -1;
@@ -690,16 +1054,11 @@ public class ExtCollectionUtils {
 	 * @return true if <tt>list</tt> contains <tt>element</tt>
 	 */
 	public static <D> List<Integer> allIndexesOf(final Collection<D> list, final D element, final int startIndex, final EquityComparator<D> comparator) {
-		final List<Integer> indexes = new ArrayList<>();
-		int ind = startIndex - 1;
-		while ((ind = indexOf(list, element, ind + 1, comparator)) != -1) {
-			indexes.add(ind);
-		}
-		return indexes;
+		return allIndexesOfStream(list, element, startIndex, comparator).boxed().collect(Collectors.toList());
 	}
 
 	/**
-	 * Returns a true if <tt>list</tt> contains <tt>element</tt>
+	 * Returns the indexes of all occurrences of <tt>element</tt> as primitive array. The collection is traversed only once.
 	 *
 	 * @param list
 	 *            the list to be checked
@@ -707,60 +1066,203 @@ public class ExtCollectionUtils {
 	 *            element searched for
 	 * @param startIndex
 	 *            search starting index
+	 * @param comparator
+	 *            comparator used to compare equity
 	 * @param <D>
 	 *            collection value type
-	 * @return true if <tt>list</tt> contains <tt>element</tt>
+	 * @return array with the indexes of the element in ascending order. Empty array if there is no such element
 	 */
-	public static <D> List<Integer> allIndexesOf(final Collection<D> list, final D element, final int startIndex) {
-		return allIndexesOf(list, element, startIndex, equalsEquityComparator());
+	public static <D> int[] allIndexesOfArray(final Collection<D> list, final D element, final int startIndex, final EquityComparator<D> comparator) {
+		return allIndexesOfStream(list, element, startIndex, comparator).toArray();
 	}
 
 	/**
-	 * Returns a true if <tt>list</tt> contains <tt>element</tt>
+	 * Returns the indexes of all occurrences of <tt>element</tt> as primitive array using {@link ExtCollectionUtils#equalsEquityComparator()}. The collection is traversed only once.
 	 *
 	 * @param list
 	 *            the list to be checked
 	 * @param element
-	 *            element to be searched for
+	 *            element searched for
+	 * @param startIndex
+	 *            search starting index
+	 * @param <D>
+	 *            collection value type
+	 * @return array with the indexes of the element in ascending order. Empty array if there is no such element
+	 */
+	public static <D> int[] allIndexesOfArray(final Collection<D> list, final D element, final int startIndex) {
+		return allIndexesOfArray(list, element, startIndex, equalsEquityComparator());
+	}
+
+	/**
+	 * Returns a lazy stream of the indexes of all occurrences of <tt>element</tt>. The collection is traversed only once, while the stream is consumed.
+	 *
+	 * @param list
+	 *            the list to be checked
+	 * @param element
+	 *            element searched for
+	 * @param startIndex
+	 *            search starting index
 	 * @param comparator
 	 *            comparator used to compare equity
 	 * @param <D>
 	 *            collection value type
-	 * @return true if <tt>list</tt> contains <tt>element</tt>
+	 * @return ordered stream with the indexes of the element
 	 */
-	public static <D> boolean contains(final Collection<D> list, final D element, final EquityComparator<D> comparator) {
-		return indexOf(list, element, 0, comparator) != -1;
+	public static <D> IntStream allIndexesOfStream(final Collection<D> list, final D element, final int startIndex, final EquityComparator<D> comparator) {
+		if (list instanceof List && list instanceof RandomAccess) {
+			final List<D> randomAccessList = (List<D>) list;
+			return IntStream.range(Math.max(startIndex, 0), randomAccessList.size()).filter(i -> comparator.equals(element, randomAccessList.get(i)));
+		}
+		final Iterator<D> it = defaultCollection(list).iterator();
+		final PrimitiveIterator.OfInt indexes = new PrimitiveIterator.OfInt() {
+			private int ind = -1;
+			private int next = -1;
+
+			@Override
+			public boolean hasNext() {
+				while (next == -1 && it.hasNext()) {
+					ind++;
+					final D e = it.next();
+					if (ind >= startIndex && comparator.equals(element, e)) {
+						next = ind;
+					}
+				}
+				return next != -1;
+			}
+
+			@Override
+			public int nextInt() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				final int result = next;
+				next = -1;
+				return result;
+			}
+		};
+		return StreamSupport.intStream(Spliterators.spliteratorUnknownSize(indexes, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL), false);
 	}
 
 	/**
-	 * Returns a true if <tt>list</tt> contains <tt>element</tt> using {@link ExtCollectionUtils#equalsEquityComparator()}
+	 * Returns a lazy stream of the indexes of all occurrences of <tt>element</tt> using {@link ExtCollectionUtils#equalsEquityComparator()}. The collection is traversed only once, while the stream is consumed.
 	 *
 	 * @param list
 	 *            the list to be checked
 	 * @param element
-	 *            element to be searched for
+	 *            element searched for
+	 * @param startIndex
+	 *            search starting index
 	 * @param <D>
 	 *            collection value type
-	 * @return true if <tt>list</tt> contains <tt>element</tt>
+	 * @return ordered stream with the indexes of the element
 	 */
-	public static <D> boolean contains(final Collection<D> list, final D element) {
-		return contains(list, element, equalsEquityComparator());
+	public static <D> IntStream allIndexesOfStream(final Collection<D> list, final D element, final int startIndex) {
+		return allIndexesOfStream(list, element, startIndex, equalsEquityComparator());
 	}
 
 	/**
-	 * Removes the element with <tt>index</tt>
+	 * Returns a true if <tt>list</tt> contains <tt>element</tt>
 	 *
 	 * @param list
-	 *            the list to be modified
-	 * @param index
-	 *            element index to be removed
-	 * @param comparator
-	 *            comparator used to compare equity
+	 *            the list to be checked
+	 * @param element
+	 *            element searched for
+	 * @param startIndex
+	 *            search starting index
 	 * @param <D>
 	 *            collection value type
-	 * @return the the previous value of the element or null if there no such element
+	 * @return true if <tt>list</tt> contains <tt>element</tt>
+	 */
+	public static <D> List<Integer> allIndexesOf(final Collection<D> list, final D element, final int startIndex) {
+		return allIndexesOf(list, element, startIndex, equalsEquityComparator());
+	}
+
+	/**
+	 * Returns a true if <tt>list</tt> contains <tt>element</tt>
+	 *
+	 * @param list
+	 *            the list to be checked
+	 * @param element
+	 *            element to be searched for
+	 * @param comparator
+	 *            comparator used to compare equity
+	 * @param <D>
+	 *            collection value type
+	 * @return true if <tt>list</tt> contains <tt>element</tt>
+	 */
+	public static <D> boolean contains(final Collection<D> list, final D element, final EquityComparator<D> comparator) {
+		return indexOf(list, element, 0, comparator) != -1;
+	}
+
+	/**
+	 * Returns a true if <tt>list</tt> contains <tt>element</tt> using {@link ExtCollectionUtils#equalsEquityComparator()}
+	 *
+	 * @param list
+	 *            the list to be checked
+	 * @param element
+	 *            element to be searched for
+	 * @param <D>
+	 *            collection value type
+	 * @return true if <tt>list</tt> contains <tt>element</tt>
+	 */
+	public static <D> boolean contains(final Collection<D> list, final D element) {
+		return contains(list, element, equalsEquityComparator());
+	}
+
+	/**
+	 * Returns a true if <tt>list</tt> contains <tt>element</tt>. The bloom <tt>filter</tt> of <tt>list</tt> is checked first and the list is searched only if the filter might contain the element.
+	 *
+	 * @param list
+	 *            the list to be checked
+	 * @param element
+	 *            element to be searched for
+	 * @param filter
+	 *            bloom filter containing the elements of <tt>list</tt>, built with hash function consistent with <tt>comparator</tt>. If null, only the list is searched
+	 * @param comparator
+	 *            comparator used to compare equity
+	 * @param <D>
+	 *            collection value type
+	 * @return true if <tt>list</tt> contains <tt>element</tt>
+	 */
+	public static <D> boolean contains(final Collection<D> list, final D element, final BloomFilter<? super D> filter, final EquityComparator<D> comparator) {
+		return (filter == null || filter.mightContain(element)) && contains(list, element, comparator);
+	}
+
+	/**
+	 * Returns a true if <tt>list</tt> contains <tt>element</tt> using {@link ExtCollectionUtils#equalsEquityComparator()}. The bloom <tt>filter</tt> of <tt>list</tt> is checked first.
+	 *
+	 * @param list
+	 *            the list to be checked
+	 * @param element
+	 *            element to be searched for
+	 * @param filter
+	 *            bloom filter containing the elements of <tt>list</tt>. If null, only the list is searched
+	 * @param <D>
+	 *            collection value type
+	 * @return true if <tt>list</tt> contains <tt>element</tt>
+	 */
+	public static <D> boolean contains(final Collection<D> list, final D element, final BloomFilter<? super D> filter) {
+		return contains(list, element, filter, equalsEquityComparator());
+	}
+
+	/**
+	 * Removes the element with <tt>index</tt>
+	 *
+	 * @param list
+	 *            the list to be modified
+	 * @param index
+	 *            element index to be removed
+	 * @param comparator
+	 *            comparator used to compare equity
+	 * @param <D>
+	 *            collection value type
+	 * @return the the previous value of the element or null if there no such element
 	 */
 	public static <D> D removeIndex(final Collection<D> list, final int index, final EquityComparator<D> comparator) {
+		if (list instanceof List) {
+			final List<D> l = (List<D>) list;
+			return (index >= 0 && index < l.size() ? l.remove(index) : null);
+		}
 		final Iterator<D> it = defaultCollection(list).iterator();
 		D found = null;
 		int ind = -1;
@@ -791,7 +1293,9 @@ public class ExtCollectionUtils {
 	 */
 	public static <K, V> List<V> getMapValues(final Map<K, V> map, final Collection<K> keys) {
 		if (isNotEmpty(map) && isNotEmpty(keys)) {
-			return keys.stream().filter(k -> map.containsKey(k)).map(k -> map.get(k)).collect(Collectors.toList());
+			final List<V> values = new ArrayList<>(keys.size());
+			keys.stream().filter(k -> map.containsKey(k)).forEach(k -> values.add(map.get(k)));
+			return values;
 		} else {
 			return new ArrayList<>();
 		}
@@ -834,7 +1338,20 @@ public class ExtCollectionUtils {
 	 */
 	public static <K, V> Map<K, V> changeMapValues(final Map<K, V> map, final V oldValue, final V newValue, final EquityComparator<V> comparator) {
 		if (isNotEmpty(map)) {
-			map.entrySet().stream().filter(e -> comparator.equals(e.getValue(), oldValue)).forEach(e -> e.setValue(newValue));
+			final ConcurrentHashMap<K, V> concurrentMap = largeConcurrentHashMap(map);
+			if (concurrentMap != null) {
+				concurrentMap.forEach(MAP_PARALLELISM_THRESHOLD, (k, v) -> {
+					if (comparator.equals(v, oldValue)) {
+						concurrentMap.replace(k, v, newValue);
+					}
+				});
+			} else {
+				for (final Map.Entry<K, V> e : map.entrySet()) {
+					if (comparator.equals(e.getValue(), oldValue)) {
+						e.setValue(newValue);
+					}
+				}
+			}
 		}
 		return map;
 	}
@@ -875,11 +1392,22 @@ public class ExtCollectionUtils {
 	 */
 	public static <K, V> Map<K, V> removeMapValues(final Map<K, V> map, final Collection<V> values, final EquityComparator<V> comparator) {
 		if (isNotEmpty(map) && isNotEmpty(values)) {
-			for (final Iterator<Map.Entry<K, V>> it = map.entrySet().iterator(); it.hasNext();) {
-				final Map.Entry<K, V> e = it.next();
-				if (contains(values, e.getValue(), comparator)) {
-					it.remove();
-				}
+			final Predicate<V> toBeRemoved;
+			final HashingEquityComparator<V> hashing = hashing(comparator);
+			if (hashing != null) {
+				toBeRemoved = hashedContains(values, hashing);
+			} else {
+				toBeRemoved = v -> contains(values, v, comparator);
+			}
+			final ConcurrentHashMap<K, V> concurrentMap = largeConcurrentHashMap(map);
+			if (concurrentMap != null) {
+				concurrentMap.forEach(MAP_PARALLELISM_THRESHOLD, (k, v) -> {
+					if (toBeRemoved.test(v)) {
+						concurrentMap.remove(k, v);
+					}
+				});
+			} else {
+				map.values().removeIf(toBeRemoved);
 			}
 		}
 		return map;
@@ -945,6 +1473,31 @@ public class ExtCollectionUtils {
 		return dest;
 	}
 
+	/**
+	 * Adds all elements from <tt>dest</tt> to <tt>src</tt>. if src is null and <tt>collectionFactory</tt> is not null a new collection is created with the size of <tt>src</tt> as capacity
+	 *
+	 * @param dest
+	 *            destination collection
+	 * @param src
+	 *            source collection
+	 * @param collectionFactory
+	 *            collection factory, accepting the expected number of elements, to be used when <tt>dest</tt> is null. Could be null, then no collection will be created
+	 * @param <V>
+	 *            collection value type
+	 * @param <C>
+	 *            collection type
+	 * @return <tt>dest</tt> if <tt>dest</tt> is not null OR newly created collection if <tt>collectionFactory</tt> is not null. Returns null otherwise (dest is null and collectionFactory is null)
+	 */
+	public static <V, C extends Collection<V>> C addAllSized(C dest, final Collection<V> src, final IntFunction<C> collectionFactory) {
+		if (isNotEmpty(src) && (dest != null || collectionFactory != null)) {
+			if (dest == null) {
+				dest = collectionFactory.apply(src.size());
+			}
+			dest.addAll(src);
+		}
+		return dest;
+	}
+
 	/**
 	 * Returns a new {@link Collection} containing <tt><i>a</i> - <i>b</i></tt>.
 	 *
@@ -960,14 +1513,113 @@ public class ExtCollectionUtils {
 	 * @see Collection#removeAll
 	 */
 	public static <D> List<D> subtract(final Collection<D> a, final Collection<D> b, final EquityComparator<D> comparator) {
-		final List<D> result = new ArrayList<>();
+		final HashingEquityComparator<D> hashing = hashing(comparator);
+		if (hashing != null) {
+			return subtract(a, b, hashing);
+		}
+		final List<D> result = new ArrayList<>(size(a));
+		if (a != null) {
+			a.stream().filter(e -> !contains(b, e, comparator)).forEach(result::add);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a new {@link Collection} containing <tt><i>a</i> - <i>b</i></tt>. The elements of <tt><i>b</i></tt> are hashed, so the operation runs in linear time.
+	 *
+	 * @param a
+	 *            the collection to subtract from (if null empty list is returned)
+	 * @param b
+	 *            the collection to subtract (may be null, then a new list equals to <tt><i>a</i></tt> is returned)
+	 * @param comparator
+	 *            hashing comparator used to check for equity
+	 * @param <D>
+	 *            collection value type
+	 * @return a new collection with the results
+	 * @see Collection#removeAll
+	 */
+	public static <D> List<D> subtract(final Collection<D> a, final Collection<D> b, final HashingEquityComparator<D> comparator) {
+		final List<D> result = new ArrayList<>(size(a));
 		if (a != null) {
-			result.addAll(a.stream().filter(e -> !contains(b, e, comparator)).collect(Collectors.toList()));
+			final Predicate<D> containedInB = hashedContains(b, comparator);
+			a.stream().filter(containedInB.negate()).forEach(result::add);
+		}
+		return result;
+	}
 
+	/**
+	 * Returns a new {@link Collection} containing <tt><i>a</i> - <i>b</i></tt>. The bloom filter of <tt><i>b</i></tt> is checked first and the exact check is done only for elements that might be
+	 * contained in <tt><i>b</i></tt>. If <tt>comparator</tt> is hashing, <tt><i>b</i></tt> is hashed on the first filter hit.
+	 *
+	 * @param a
+	 *            the collection to subtract from (if null empty list is returned)
+	 * @param b
+	 *            the collection to subtract (may be null, then a new list equals to <tt><i>a</i></tt> is returned)
+	 * @param filterOfB
+	 *            bloom filter containing the elements of <tt><i>b</i></tt>, built with hash function consistent with <tt>comparator</tt>
+	 * @param comparator
+	 *            comparator used to check for equity
+	 * @param <D>
+	 *            collection value type
+	 * @return a new collection with the results
+	 * @see BloomFilter
+	 */
+	public static <D> List<D> subtract(final Collection<D> a, final Collection<D> b, final BloomFilter<? super D> filterOfB, final EquityComparator<D> comparator) {
+		NullUtils.checkNotNull(filterOfB, "filterOfB cannot be null");
+		final List<D> result = new ArrayList<>(size(a));
+		if (a != null) {
+			// b is hashed only when the filter doesn't reject all elements of a
+			Predicate<D> containedInB = null;
+			for (final D e : a) {
+				if (filterOfB.mightContain(e)) {
+					if (containedInB == null) {
+						containedInB = containedIn(b, comparator);
+					}
+					if (containedInB.test(e)) {
+						continue;
+					}
+				}
+				result.add(e);
+			}
 		}
 		return result;
 	}
 
+	/**
+	 * Returns a new {@link Collection} containing <tt><i>a</i> - <i>b</i></tt>, checking the bloom filter of <tt><i>b</i></tt> first. Comparison is using
+	 * {@link ExtCollectionUtils#equalsEquityComparator()}.
+	 *
+	 * @param a
+	 *            the collection to subtract from (if null empty list is returned)
+	 * @param b
+	 *            the collection to subtract (may be null, then a new list equals to <tt><i>a</i></tt> is returned)
+	 * @param filterOfB
+	 *            bloom filter containing the elements of <tt><i>b</i></tt>
+	 * @param <D>
+	 *            collection value type
+	 * @return a new collection with the results
+	 * @see BloomFilter
+	 */
+	public static <D> List<D> subtract(final Collection<D> a, final Collection<D> b, final BloomFilter<? super D> filterOfB) {
+		return subtract(a, b, filterOfB, equalsEquityComparator());
+	}
+
+	/**
+	 * Creates a predicate checking if an element is contained in <tt>values</tt>. For hashing comparators the values are hashed, otherwise the values are searched linearly.
+	 *
+	 * @param values
+	 *            the values, could be null
+	 * @param comparator
+	 *            the equity comparator
+	 * @param <V>
+	 *            collection value type
+	 * @return predicate returning true if the tested element is contained in <tt>values</tt>
+	 */
+	private static <V> Predicate<V> containedIn(final Collection<V> values, final EquityComparator<V> comparator) {
+		final HashingEquityComparator<V> hashing = hashing(comparator);
+		return (hashing != null ? hashedContains(values, hashing) : e -> contains(values, e, comparator));
+	}
+
 	/**
 	 * Returns a new {@link Collection} containing <tt><i>a</i> - <i>b</i></tt>. Comparison is using {@link ExtCollectionUtils#equalsEquityComparator()}.
 	 *
@@ -985,7 +1637,7 @@ public class ExtCollectionUtils {
 	}
 
 	/**
-	 * Remove all occurrences of <tt>element</tt> in collection.
+	 * Remove all occurrences of <tt>element</tt> in collection. The collection is traversed only once.
 	 *
 	 * @param collection
 	 *            collection
@@ -1000,9 +1652,8 @@ public class ExtCollectionUtils {
 	 * @return the <tt>collection</tt>
 	 */
 	public static <D, C extends Collection<D>> C removeAll(final C collection, final D element, final EquityComparator<D> comparator) {
-		int ind = 0;
-		while ((ind = indexOf(collection, element, ind, comparator)) != -1) {
-			removeIndex(collection, ind, comparator);
+		if (collection != null) {
+			collection.removeIf(e -> comparator.equals(element, e));
 		}
 		return collection;
 	}
@@ -1025,7 +1676,7 @@ public class ExtCollectionUtils {
 	}
 
 	/**
-	 * Removes all <tt>elementsToRemove</tt> from <tt>dest</tt>
+	 * Removes all <tt>elementsToRemove</tt> from <tt>dest</tt>. The <tt>dest</tt> is traversed only once.
 	 *
 	 * @param dest
 	 *            destination where the elements are removed
@@ -1040,10 +1691,34 @@ public class ExtCollectionUtils {
 	 * @return <tt>dest</tt>
 	 */
 	public static <V, C extends Collection<V>> C removeAll(final C dest, final C elementsToRemove, final EquityComparator<V> comparator) {
-		if (isNotEmpty(elementsToRemove)) {
-			if (dest != null) {
-				elementsToRemove.forEach(e -> removeAll(dest, e, comparator));
-			}
+		final HashingEquityComparator<V> hashing = hashing(comparator);
+		if (hashing != null) {
+			return removeAll(dest, elementsToRemove, hashing);
+		}
+		if (isNotEmpty(elementsToRemove) && dest != null) {
+			dest.removeIf(e -> elementsToRemove.stream().anyMatch(r -> comparator.equals(r, e)));
+		}
+		return dest;
+	}
+
+	/**
+	 * Removes all <tt>elementsToRemove</tt> from <tt>dest</tt>. The <tt>elementsToRemove</tt> are hashed, so the operation runs in linear time.
+	 *
+	 * @param dest
+	 *            destination where the elements are removed
+	 * @param elementsToRemove
+	 *            elements to be removed
+	 * @param comparator
+	 *            hashing equity comparator
+	 * @param <V>
+	 *            collection value type
+	 * @param <C>
+	 *            collection type
+	 * @return <tt>dest</tt>
+	 */
+	public static <V, C extends Collection<V>> C removeAll(final C dest, final C elementsToRemove, final HashingEquityComparator<V> comparator) {
+		if (isNotEmpty(elementsToRemove) && dest != null) {
+			dest.removeIf(hashedContains(elementsToRemove, comparator));
 		}
 		return dest;
 	}
@@ -1108,7 +1783,9 @@ public class ExtCollectionUtils {
 	 */
 	public static <V, C extends Collection<V>> C subCollection(final Collection<V> collection, final int fromIndex, final int toIndex, final Supplier<C> collectionFactory) {
 		final C sub = collectionFactory.get();
-		if (collection != null) {
+		if (collection instanceof List) {
+			sub.addAll(subListView((List<V>) collection, fromIndex, toIndex));
+		} else if (collection != null) {
 			final Iterator<V> it = collection.iterator();
 			int ind = 0;
 			while (it.hasNext() && ind < toIndex) {
@@ -1123,17 +1800,120 @@ public class ExtCollectionUtils {
 	}
 
 	/**
-	 * Creates a copy of the list (ArrayList)
+	 * Returns a new collection containing the portion of the provided <tt>collection</tt> between the specified <tt>fromIndex</tt>, inclusive, and <tt>toIndex</tt>, exclusive. If <tt>fromIndex</tt> and <tt>toIndex</tt> are equal or the range is invalid, the returned list is empty. The collection is created with the size of the portion as capacity.
+	 *
+	 * @param collection
+	 *            the collection which will be used for creating the sublists
+	 * @param fromIndex
+	 *            start index inclusive
+	 * @param toIndex
+	 *            end index exclusive
+	 * @param collectionFactory
+	 *            collection factory, accepting the expected number of elements, used to create the returned collection
+	 * @param <V>
+	 *            collection value type
+	 * @param <C>
+	 *            collection type
+	 * @return a new collection containing the values between <tt>fromIndex</tt> (inclusive) and <tt>toIndex</tt> (exclusive).
+	 */
+	public static <V, C extends Collection<V>> C subCollectionSized(final Collection<V> collection, final int fromIndex, final int toIndex, final IntFunction<C> collectionFactory) {
+		final int expectedSize = Math.max(0, Math.min(toIndex, size(collection)) - Math.max(fromIndex, 0));
+		return subCollection(collection, fromIndex, toIndex, () -> collectionFactory.apply(expectedSize));
+	}
+
+	/**
+	 * Returns a view of the portion of the provided <tt>list</tt> between the specified <tt>fromIndex</tt>, inclusive, and <tt>toIndex</tt>, exclusive. The range is limited to the list bounds and if
+	 * it is empty or invalid, an empty list is returned. The view is created by {@link List#subList(int, int)}, so no elements are copied and for {@link RandomAccess} lists the view is created in
+	 * constant time. Structural changes of the <tt>list</tt> make the view invalid.
+	 *
+	 * @param list
+	 *            the list, could be null
+	 * @param fromIndex
+	 *            start index inclusive
+	 * @param toIndex
+	 *            end index exclusive
+	 * @param <V>
+	 *            list value type
+	 * @return a view of the values between <tt>fromIndex</tt> (inclusive) and <tt>toIndex</tt> (exclusive)
+	 */
+	public static <V> List<V> subListView(final List<V> list, final int fromIndex, final int toIndex) {
+		final int from = Math.max(0, fromIndex);
+		final int to = Math.min(size(list), toIndex);
+		return (from < to ? list.subList(from, to) : Collections.emptyList());
+	}
+
+	/**
+	 * Returns a read-only view of the portion of the provided <tt>collection</tt> between the specified <tt>fromIndex</tt>, inclusive, and <tt>toIndex</tt>, exclusive. Lists are handled by
+	 * {@link #subListView(List, int, int)}. For other collections the view iterator skips straight to <tt>fromIndex</tt> and stops at <tt>toIndex</tt>, without copying any elements.
+	 *
+	 * @param collection
+	 *            the collection, could be null
+	 * @param fromIndex
+	 *            start index inclusive
+	 * @param toIndex
+	 *            end index exclusive
+	 * @param <V>
+	 *            collection value type
+	 * @return a view of the values between <tt>fromIndex</tt> (inclusive) and <tt>toIndex</tt> (exclusive)
+	 */
+	public static <V> Collection<V> subCollectionView(final Collection<V> collection, final int fromIndex, final int toIndex) {
+		if (collection instanceof List) {
+			return Collections.unmodifiableList(subListView((List<V>) collection, fromIndex, toIndex));
+		} else if (collection == null) {
+			return Collections.emptyList();
+		}
+		final int from = Math.max(0, fromIndex);
+		return new AbstractCollection<V>() {
+			@Override
+			public Iterator<V> iterator() {
+				return subCollectionStream(collection, from, toIndex).iterator();
+			}
+
+			@Override
+			public int size() {
+				return Math.max(0, Math.min(collection.size(), toIndex) - from);
+			}
+		};
+	}
+
+	/**
+	 * Lazily streams the portion of the provided <tt>collection</tt> between the specified <tt>fromIndex</tt>, inclusive, and <tt>toIndex</tt>, exclusive. No elements are copied: lists are streamed
+	 * from a {@link List#subList(int, int)} view and other collections skip straight to <tt>fromIndex</tt>.
+	 *
+	 * @param collection
+	 *            the collection, could be null
+	 * @param fromIndex
+	 *            start index inclusive
+	 * @param toIndex
+	 *            end index exclusive
+	 * @param <V>
+	 *            collection value type
+	 * @return stream of the values between <tt>fromIndex</tt> (inclusive) and <tt>toIndex</tt> (exclusive)
+	 */
+	public static <V> Stream<V> subCollectionStream(final Collection<V> collection, final int fromIndex, final int toIndex) {
+		final int from = Math.max(0, fromIndex);
+		if (collection instanceof List) {
+			return subListView((List<V>) collection, from, toIndex).stream();
+		} else if (collection == null || from >= toIndex) {
+			return Stream.empty();
+		}
+		return collection.stream().skip(from).limit(toIndex - from);
+	}
+
+	/**
+	 * Creates a copy of the list (ArrayList). {@link Persistent} lists are immutable and are returned without copying
 	 *
 	 * @param list
 	 *            the list to be copied
 	 * @param <T>
 	 *            list values type
-	 * @return an ArrayList copied from the <tt>list</tt>
+	 * @return an ArrayList copied from the <tt>list</tt> or the <tt>list</tt> itself if it is {@link Persistent}
 	 */
 	public static <T> List<T> copy(final List<T> list) {
 		final List<T> result;
-		if (list != null) {
+		if (list instanceof Persistent) {
+			result = list;
+		} else if (list != null) {
 			result = new ArrayList<>(list);
 		} else {
 			result = null;
@@ -1142,17 +1922,19 @@ public class ExtCollectionUtils {
 	}
 
 	/**
-	 * Creates a copy of the set (HashSet)
+	 * Creates a copy of the set (HashSet). {@link Persistent} sets are immutable and are returned without copying
 	 *
 	 * @param set
 	 *            the set to be copied
 	 * @param <T>
 	 *            collection value type
-	 * @return an HashSet copied from the <tt>set</tt>
+	 * @return an HashSet copied from the <tt>set</tt> or the <tt>set</tt> itself if it is {@link Persistent}
 	 */
 	public static <T> Set<T> copy(final Set<T> set) {
 		final Set<T> result;
-		if (set != null) {
+		if (set instanceof Persistent) {
+			result = set;
+		} else if (set != null) {
 			result = new HashSet<>(set);
 		} else {
 			result = null;
@@ -1161,7 +1943,7 @@ public class ExtCollectionUtils {
 	}
 
 	/**
-	 * Creates a copy of the map (HashMap)
+	 * Creates a copy of the map (HashMap). {@link Persistent} maps are immutable and are returned without copying
 	 *
 	 * @param map
 	 *            the map to be copied
@@ -1169,11 +1951,13 @@ public class ExtCollectionUtils {
 	 *            key type
 	 * @param <V>
 	 *            value type
-	 * @return an HashMap copied from the <tt>map</tt>
+	 * @return an HashMap copied from the <tt>map</tt> or the <tt>map</tt> itself if it is {@link Persistent}
 	 */
 	public static <K, V> Map<K, V> copy(final Map<K, V> map) {
 		final Map<K, V> result;
-		if (map != null) {
+		if (map instanceof Persistent) {
+			result = map;
+		} else if (map != null) {
 			result = new HashMap<>(map);
 		} else {
 			result = null;
@@ -1186,7 +1970,8 @@ public class ExtCollectionUtils {
 	 * result in an <tt>UnsupportedOperationException</tt>.
 	 * <p>
 	 *
-	 * The returned list will be serializable if the specified list is serializable. Similarly, the returned list will implement {@link RandomAccess} if the specified list does.
+	 * The returned list will be serializable if the specified list is serializable. Similarly, the returned list will implement {@link RandomAccess} if the specified list does. {@link Persistent} lists are
+	 * already unmodifiable and are returned as is.
 	 *
 	 * @param <T>
 	 *            the class of the objects in the list
@@ -1195,7 +1980,9 @@ public class ExtCollectionUtils {
 	 * @return an unmodifiable view of the specified list.
 	 */
 	public static <T> List<T> unmodifiableList(final List<T> list) {
-		if (list != null) {
+		if (list instanceof Persistent) {
+			return list;
+		} else if (list != null) {
 			return Collections.unmodifiableList(list);
 		} else {
 			return null;
@@ -1207,7 +1994,7 @@ public class ExtCollectionUtils {
 	 * result in an <tt>UnsupportedOperationException</tt>.
 	 * <p>
 	 *
-	 * The returned set will be serializable if the specified set is serializable.
+	 * The returned set will be serializable if the specified set is serializable. {@link Persistent} sets are already unmodifiable and are returned as is.
 	 *
 	 * @param <T>
 	 *            the class of the objects in the set
@@ -1216,7 +2003,9 @@ public class ExtCollectionUtils {
 	 * @return an unmodifiable view of the specified set.
 	 */
 	public static <T> Set<T> unmodifiableSet(final Set<T> set) {
-		if (set != null) {
+		if (set instanceof Persistent) {
+			return set;
+		} else if (set != null) {
 			return Collections.unmodifiableSet(set);
 		} else {
 			return null;
@@ -1228,7 +2017,7 @@ public class ExtCollectionUtils {
 	 * views, result in an <tt>UnsupportedOperationException</tt>.
 	 * <p>
 	 *
-	 * The returned map will be serializable if the specified map is serializable.
+	 * The returned map will be serializable if the specified map is serializable. {@link Persistent} maps are already unmodifiable and are returned as is.
 	 *
 	 * @param <K>
 	 *            the class of the map keys
@@ -1239,7 +2028,9 @@ public class ExtCollectionUtils {
 	 * @return an unmodifiable view of the specified map.
 	 */
 	public static <K, V> Map<K, V> unmodifiableMap(final Map<K, V> map) {
-		if (map != null) {
+		if (map instanceof Persistent) {
+			return map;
+		} else if (map != null) {
 			return Collections.unmodifiableMap(map);
 		} else {
 			return null;
@@ -1307,6 +2098,10 @@ public class ExtCollectionUtils {
 	 * @return HasSet representing intersection between two collections
 	 */
 	public static <V> Set<V> intersect(final Collection<V> l1, final Collection<V> l2, final EquityComparator<V> comparator) {
+		final HashingEquityComparator<V> hashing = hashing(comparator);
+		if (hashing != null) {
+			return intersect(l1, l2, hashing);
+		}
 		final Set<V> intersection;
 		if (isNotEmpty(l1) && isNotEmpty(l2)) {
 			intersection = l1.stream().filter(e -> contains(l2, e, comparator)).collect(Collectors.toSet());
@@ -1317,41 +2112,585 @@ public class ExtCollectionUtils {
 	}
 
 	/**
-	 * Splits a collection into list of collection with max number of elements equals to <tt>maxSize</tt>
+	 * Creates intersection between two collections. The elements of <tt>l2</tt> are hashed, so the operation runs in linear time.
 	 *
-	 * @param collection
-	 *            collection to be split
-	 * @param maxSize
-	 *            max size of the sub collections
-	 * @param collectionFactory
-	 *            collection factory used to create sub collections
+	 * @param l1
+	 *            first collection
+	 * @param l2
+	 *            second collection
+	 * @param comparator
+	 *            hashing equity comparator used for element comparison
 	 * @param <V>
 	 *            collection values type
-	 * @param <C>
-	 *            collection type
+	 * @return HasSet representing intersection between two collections
+	 */
+	public static <V> Set<V> intersect(final Collection<V> l1, final Collection<V> l2, final HashingEquityComparator<V> comparator) {
+		final Set<V> intersection;
+		if (isNotEmpty(l1) && isNotEmpty(l2)) {
+			intersection = l1.stream().filter(hashedContains(l2, comparator)).collect(Collectors.toSet());
+		} else {
+			intersection = new HashSet<>();
+		}
+		return intersection;
+	}
+
+	/**
+	 * Lazily creates intersection between two iterators sorted by <tt>cmp</tt>. The iterators are merged in a single pass, so the operation runs in linear time and constant memory. Elements equal
+	 * according to <tt>cmp</tt> are returned only once. The result is undefined if any of the iterators is not sorted by <tt>cmp</tt>.
+	 *
+	 * @param a
+	 *            first sorted iterator
+	 * @param b
+	 *            second sorted iterator
+	 * @param cmp
+	 *            comparator used for sorting the iterators
+	 * @param <V>
+	 *            values type
+	 * @return sorted iterator over the distinct elements contained in both iterators
+	 */
+	public static <V> Iterator<V> intersectSorted(final Iterator<? extends V> a, final Iterator<? extends V> b, final Comparator<? super V> cmp) {
+		return new SortedMergeIterator<>(a, b, cmp, true);
+	}
+
+	/**
+	 * Lazily creates intersection between two collections sorted by <tt>cmp</tt> (e.g. {@link java.util.SortedSet}s or sorted lists).
+	 *
+	 * @param a
+	 *            first sorted collection, could be null
+	 * @param b
+	 *            second sorted collection, could be null
+	 * @param cmp
+	 *            comparator used for sorting the collections
+	 * @param <V>
+	 *            values type
+	 * @return sorted iterator over the distinct elements contained in both collections
+	 * @see #intersectSorted(Iterator, Iterator, Comparator)
+	 */
+	public static <V> Iterator<V> intersectSorted(final Iterable<? extends V> a, final Iterable<? extends V> b, final Comparator<? super V> cmp) {
+		return intersectSorted(iterator(a), iterator(b), cmp);
+	}
+
+	/**
+	 * Lazily subtracts iterator <tt>b</tt> from iterator <tt>a</tt> (a - b). Both iterators must be sorted by <tt>cmp</tt>. The iterators are merged in a single pass, so the operation runs in linear
+	 * time and constant memory. The result is undefined if any of the iterators is not sorted by <tt>cmp</tt>.
+	 *
+	 * @param a
+	 *            sorted iterator
+	 * @param b
+	 *            sorted iterator with elements to be subtracted
+	 * @param cmp
+	 *            comparator used for sorting the iterators
+	 * @param <V>
+	 *            values type
+	 * @return sorted iterator over the elements of <tt>a</tt> not contained in <tt>b</tt>
+	 */
+	public static <V> Iterator<V> subtractSorted(final Iterator<? extends V> a, final Iterator<? extends V> b, final Comparator<? super V> cmp) {
+		return new SortedMergeIterator<>(a, b, cmp, false);
+	}
+
+	/**
+	 * Lazily subtracts collection <tt>b</tt> from collection <tt>a</tt> (a - b). Both collections must be sorted by <tt>cmp</tt> (e.g. {@link java.util.SortedSet}s or sorted lists).
+	 *
+	 * @param a
+	 *            sorted collection, could be null
+	 * @param b
+	 *            sorted collection with elements to be subtracted, could be null
+	 * @param cmp
+	 *            comparator used for sorting the collections
+	 * @param <V>
+	 *            values type
+	 * @return sorted iterator over the elements of <tt>a</tt> not contained in <tt>b</tt>
+	 * @see #subtractSorted(Iterator, Iterator, Comparator)
+	 */
+	public static <V> Iterator<V> subtractSorted(final Iterable<? extends V> a, final Iterable<? extends V> b, final Comparator<? super V> cmp) {
+		return subtractSorted(iterator(a), iterator(b), cmp);
+	}
+
+	private static <V> Iterator<? extends V> iterator(final Iterable<? extends V> iterable) {
+		return (iterable != null ? iterable.iterator() : Collections.<V> emptyIterator());
+	}
+
+	/**
+	 * Iterator merging two sorted iterators and returning the elements of the first one, that are (intersection) or are not (subtraction) contained in the second one
+	 *
+	 * @param <V>
+	 *            values type
+	 */
+	private static final class SortedMergeIterator<V> implements Iterator<V> {
+		private final Iterator<? extends V> a;
+		private final Iterator<? extends V> b;
+		private final Comparator<? super V> cmp;
+		private final boolean intersection;
+		private V currentB;
+		private boolean hasCurrentB;
+		private V next;
+		private boolean hasNext;
+		private V last;
+		private boolean hasLast;
+
+		private SortedMergeIterator(final Iterator<? extends V> a, final Iterator<? extends V> b, final Comparator<? super V> cmp, final boolean intersection) {
+			this.a = a;
+			this.b = b;
+			this.cmp = cmp;
+			this.intersection = intersection;
+			advanceB();
+		}
+
+		private void advanceB() {
+			hasCurrentB = b.hasNext();
+			currentB = (hasCurrentB ? b.next() : null);
+		}
+
+		private boolean containedInB(final V e) {
+			while (hasCurrentB && cmp.compare(currentB, e) < 0) {
+				advanceB();
+			}
+			return hasCurrentB && cmp.compare(currentB, e) == 0;
+		}
+
+		private void fetch() {
+			while (!hasNext && a.hasNext() && (hasCurrentB || !intersection)) {
+				final V e = a.next();
+				if (intersection) {
+					hasNext = containedInB(e) && !(hasLast && cmp.compare(last, e) == 0);
+				} else {
+					hasNext = !containedInB(e);
+				}
+				if (hasNext) {
+					next = e;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			fetch();
+			return hasNext;
+		}
+
+		@Override
+		public V next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			hasNext = false;
+			last = next;
+			hasLast = true;
+			next = null;
+			return last;
+		}
+	}
+
+	/**
+	 * Splits a collection into list of collection with max number of elements equals to <tt>maxSize</tt>
+	 *
+	 * @param collection
+	 *            collection to be split
+	 * @param maxSize
+	 *            max size of the sub collections
+	 * @param collectionFactory
+	 *            collection factory used to create sub collections
+	 * @param <V>
+	 *            collection values type
+	 * @param <C>
+	 *            collection type
 	 * @return a list of collections, each collection having size <tt>maxSize</tt>. The last collection could contain less than <tt>maxSize</tt> elements
 	 */
 	public static <V, C extends Collection<V>> List<C> split(final Collection<V> collection, final int maxSize, final Supplier<C> collectionFactory) {
-		final List<C> list = new ArrayList<>();
+		return splitSized(collection, maxSize, expectedSize -> collectionFactory.get());
+	}
 
-		if (isNotEmpty(collection) && maxSize > 0) {
-			final Iterator<V> it = collection.iterator();
-			while (it.hasNext()) {
-				int count = 0;
-				final C subCollection = collectionFactory.get();
-				list.add(subCollection);
-				while (it.hasNext() && count < maxSize) {
-					subCollection.add(it.next());
-					count++;
+	/**
+	 * Splits a collection into list of collection with max number of elements equals to <tt>maxSize</tt>. Each sub collection is created with its final size as capacity.
+	 *
+	 * @param collection
+	 *            collection to be split
+	 * @param maxSize
+	 *            max size of the sub collections
+	 * @param collectionFactory
+	 *            collection factory, accepting the expected number of elements, used to create sub collections
+	 * @param <V>
+	 *            collection values type
+	 * @param <C>
+	 *            collection type
+	 * @return a list of collections, each collection having size <tt>maxSize</tt>. The last collection could contain less than <tt>maxSize</tt> elements
+	 */
+	public static <V, C extends Collection<V>> List<C> splitSized(final Collection<V> collection, final int maxSize, final IntFunction<C> collectionFactory) {
+		if (isEmpty(collection) || maxSize <= 0) {
+			return new ArrayList<>();
+		}
+		int remaining = collection.size();
+		final List<C> list = new ArrayList<>(remaining / maxSize + (remaining % maxSize == 0 ? 0 : 1));
+		final Iterator<V> it = collection.iterator();
+		while (it.hasNext()) {
+			int count = 0;
+			final C subCollection = collectionFactory.apply(Math.max(0, Math.min(maxSize, remaining)));
+			remaining -= maxSize;
+			list.add(subCollection);
+			while (it.hasNext() && count < maxSize) {
+				subCollection.add(it.next());
+				count++;
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Lazily splits the elements of <tt>iterator</tt> into batches with max number of elements equals to <tt>batchSize</tt>. Each batch is read from <tt>iterator</tt> only when it is requested,
+	 * so only one batch is held in memory at a time and the input could have unknown or unlimited length.
+	 *
+	 * @param iterator
+	 *            the iterator, could be null
+	 * @param batchSize
+	 *            max number of elements in a batch
+	 * @param <V>
+	 *            values type
+	 * @return iterator over the batches. Each batch is a new list and the last batch could contain less than <tt>batchSize</tt> elements
+	 */
+	public static <V> Iterator<List<V>> batches(final Iterator<V> iterator, final int batchSize) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Expecting batchSize to be greater than 0");
+		}
+		return new Iterator<List<V>>() {
+			@Override
+			public boolean hasNext() {
+				return iterator != null && iterator.hasNext();
+			}
+
+			@Override
+			public List<V> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				final List<V> batch = new ArrayList<>(Math.min(batchSize, MAX_INITIAL_CAPACITY));
+				while (iterator.hasNext() && batch.size() < batchSize) {
+					batch.add(iterator.next());
+				}
+				return batch;
+			}
+		};
+	}
+
+	/**
+	 * Lazily splits the elements of <tt>iterable</tt> into batches with max number of elements equals to <tt>batchSize</tt>.
+	 *
+	 * @param iterable
+	 *            the iterable, could be null
+	 * @param batchSize
+	 *            max number of elements in a batch
+	 * @param <V>
+	 *            values type
+	 * @return iterator over the batches
+	 * @see #batches(Iterator, int)
+	 */
+	public static <V> Iterator<List<V>> batches(final Iterable<V> iterable, final int batchSize) {
+		return batches(iterable != null ? iterable.iterator() : null, batchSize);
+	}
+
+	/**
+	 * Lazily splits the elements of <tt>iterator</tt> into a sequential stream of batches with max number of elements equals to <tt>batchSize</tt>.
+	 *
+	 * @param iterator
+	 *            the iterator, could be null
+	 * @param batchSize
+	 *            max number of elements in a batch
+	 * @param <V>
+	 *            values type
+	 * @return stream of batches
+	 * @see #batches(Iterator, int)
+	 */
+	public static <V> Stream<List<V>> batchStream(final Iterator<V> iterator, final int batchSize) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batches(iterator, batchSize), Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	/**
+	 * Lazily splits the elements of <tt>iterable</tt> into a sequential stream of batches with max number of elements equals to <tt>batchSize</tt>.
+	 *
+	 * @param iterable
+	 *            the iterable, could be null
+	 * @param batchSize
+	 *            max number of elements in a batch
+	 * @param <V>
+	 *            values type
+	 * @return stream of batches
+	 * @see #batches(Iterator, int)
+	 */
+	public static <V> Stream<List<V>> batchStream(final Iterable<V> iterable, final int batchSize) {
+		return batchStream(iterable != null ? iterable.iterator() : null, batchSize);
+	}
+
+	/**
+	 * Splits the elements of <tt>iterator</tt> into batches with max number of elements equals to <tt>batchSize</tt> and applies <tt>batchProcessor</tt> on each batch using the <tt>executor</tt>.
+	 * <p>
+	 * At most <tt>maxInFlight</tt> batches are submitted, but not completed at any time. The calling thread blocks until a batch completes, before reading the next batch from the <tt>iterator</tt>. After a
+	 * batch fails no more batches are submitted. The method waits for all submitted batches to complete before it returns.
+	 *
+	 * @param iterator
+	 *            the elements to be processed (if null, empty list is returned)
+	 * @param batchSize
+	 *            max size of the batches
+	 * @param batchProcessor
+	 *            function applied on each batch
+	 * @param executor
+	 *            the executor running the batches
+	 * @param maxInFlight
+	 *            max number of batches processed concurrently
+	 * @param <V>
+	 *            elements type
+	 * @param <R>
+	 *            batch result type
+	 * @return the results of the batches, in the order of the batches
+	 * @throws CompletionException
+	 *             if any of the batches fails. The cause is the first failure, the other failures are added as suppressed exceptions
+	 */
+	public static <V, R> List<R> mapInBatches(final Iterator<V> iterator, final int batchSize, final Function<? super List<V>, ? extends R> batchProcessor, final Executor executor, final int maxInFlight) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Expecting batchSize to be greater than 0");
+		}
+		if (maxInFlight <= 0) {
+			throw new IllegalArgumentException("Expecting maxInFlight to be greater than 0");
+		}
+		NullUtils.checkNotNull(batchProcessor, "batchProcessor must not be null");
+		NullUtils.checkNotNull(executor, "executor must not be null");
+
+		final List<CompletableFuture<? extends R>> futures = new ArrayList<>();
+		final Semaphore permits = new Semaphore(maxInFlight);
+		final AtomicBoolean failed = new AtomicBoolean(false);
+		final Iterator<List<V>> batches = batches(iterator, batchSize);
+		try {
+			while (batches.hasNext() && !failed.get()) {
+				permits.acquire();
+				if (failed.get()) {
+					// a batch failed while waiting for the permit
+					permits.release();
+					break;
 				}
+				final List<V> batch = batches.next();
+				final CompletableFuture<? extends R> future;
+				try {
+					future = CompletableFuture.supplyAsync(() -> batchProcessor.apply(batch), executor);
+				} catch (final RejectedExecutionException ex) {
+					permits.release();
+					futures.add(failedFuture(ex));
+					break;
+				}
+				futures.add(future.whenComplete((r, ex) -> {
+					if (ex != null) {
+						failed.set(true);
+					}
+					permits.release();
+				}));
 			}
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			futures.add(failedFuture(ex));
 		}
+		return joinBatches(futures);
+	}
 
-		return list;
+	/**
+	 * Splits the elements of <tt>iterable</tt> into batches with max number of elements equals to <tt>batchSize</tt> and applies <tt>batchProcessor</tt> on each batch using the <tt>executor</tt>.
+	 *
+	 * @param iterable
+	 *            the elements to be processed (if null, empty list is returned)
+	 * @param batchSize
+	 *            max size of the batches
+	 * @param batchProcessor
+	 *            function applied on each batch
+	 * @param executor
+	 *            the executor running the batches
+	 * @param maxInFlight
+	 *            max number of batches processed concurrently
+	 * @param <V>
+	 *            elements type
+	 * @param <R>
+	 *            batch result type
+	 * @return the results of the batches, in the order of the batches
+	 * @throws CompletionException
+	 *             if any of the batches fails
+	 * @see #mapInBatches(Iterator, int, Function, Executor, int)
+	 */
+	public static <V, R> List<R> mapInBatches(final Iterable<V> iterable, final int batchSize, final Function<? super List<V>, ? extends R> batchProcessor, final Executor executor, final int maxInFlight) {
+		return mapInBatches(iterable != null ? iterable.iterator() : null, batchSize, batchProcessor, executor, maxInFlight);
+	}
+
+	/**
+	 * Splits the elements of <tt>iterator</tt> into batches with max number of elements equals to <tt>batchSize</tt> and passes each batch to the <tt>consumer</tt> using the <tt>executor</tt>.
+	 *
+	 * @param iterator
+	 *            the elements to be processed (could be null)
+	 * @param batchSize
+	 *            max size of the batches
+	 * @param consumer
+	 *            consumer of the batches
+	 * @param executor
+	 *            the executor running the batches
+	 * @param maxInFlight
+	 *            max number of batches processed concurrently
+	 * @param <V>
+	 *            elements type
+	 * @throws CompletionException
+	 *             if any of the batches fails
+	 * @see #mapInBatches(Iterator, int, Function, Executor, int)
+	 */
+	public static <V> void processInBatches(final Iterator<V> iterator, final int batchSize, final Consumer<? super List<V>> consumer, final Executor executor, final int maxInFlight) {
+		NullUtils.checkNotNull(consumer, "consumer must not be null");
+		mapInBatches(iterator, batchSize, batch -> {
+			consumer.accept(batch);
+			return null;
+		}, executor, maxInFlight);
+	}
+
+	/**
+	 * Splits the elements of <tt>iterable</tt> into batches with max number of elements equals to <tt>batchSize</tt> and passes each batch to the <tt>consumer</tt> using the <tt>executor</tt>.
+	 *
+	 * @param iterable
+	 *            the elements to be processed (could be null)
+	 * @param batchSize
+	 *            max size of the batches
+	 * @param consumer
+	 *            consumer of the batches
+	 * @param executor
+	 *            the executor running the batches
+	 * @param maxInFlight
+	 *            max number of batches processed concurrently
+	 * @param <V>
+	 *            elements type
+	 * @throws CompletionException
+	 *             if any of the batches fails
+	 * @see #mapInBatches(Iterator, int, Function, Executor, int)
+	 */
+	public static <V> void processInBatches(final Iterable<V> iterable, final int batchSize, final Consumer<? super List<V>> consumer, final Executor executor, final int maxInFlight) {
+		processInBatches(iterable != null ? iterable.iterator() : null, batchSize, consumer, executor, maxInFlight);
+	}
+
+	/**
+	 * Splits the elements of <tt>iterable</tt> into batches with max number of elements equals to <tt>batchSize</tt> and passes each batch to the <tt>consumer</tt>. The batches are processed by a newly
+	 * created thread pool with <tt>parallelism</tt> threads, which is shut down before the method returns.
+	 *
+	 * @param iterable
+	 *            the elements to be processed (could be null)
+	 * @param batchSize
+	 *            max size of the batches
+	 * @param consumer
+	 *            consumer of the batches
+	 * @param parallelism
+	 *            number of threads and max number of batches processed concurrently
+	 * @param <V>
+	 *            elements type
+	 * @throws CompletionException
+	 *             if any of the batches fails
+	 * @see #mapInBatches(Iterator, int, Function, Executor, int)
+	 */
+	public static <V> void processInBatches(final Iterable<V> iterable, final int batchSize, final Consumer<? super List<V>> consumer, final int parallelism) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("Expecting parallelism to be greater than 0");
+		}
+		final ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			processInBatches(iterable, batchSize, consumer, executor, parallelism);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static <R> CompletableFuture<R> failedFuture(final Throwable ex) {
+		final CompletableFuture<R> future = new CompletableFuture<>();
+		future.completeExceptionally(ex);
+		return future;
 	}
 
 	/**
-	 * Creates a stream from {@link Iterable}
+	 * Waits for all batches to complete and collects their results
+	 *
+	 * @param futures
+	 *            the batches
+	 * @param <R>
+	 *            batch result type
+	 * @return the results of the batches
+	 * @throws CompletionException
+	 *             if any of the batches fails
+	 */
+	private static <R> List<R> joinBatches(final List<CompletableFuture<? extends R>> futures) {
+		final List<R> results = new ArrayList<>(futures.size());
+		CompletionException failure = null;
+		for (final CompletableFuture<? extends R> future : futures) {
+			try {
+				results.add(future.join());
+			} catch (final CompletionException | CancellationException ex) {
+				final Throwable cause = (ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+				if (failure == null) {
+					failure = new CompletionException("Batch processing failed", cause);
+				} else {
+					failure.addSuppressed(cause);
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		return results;
+	}
+
+	/**
+	 * Spliterator over an iterator with unknown size, that splits by copying fixed size batches of elements into arrays
+	 *
+	 * @param <T>
+	 *            elements type
+	 */
+	private static final class BatchSpliterator<T> implements Spliterator<T> {
+		private final Iterator<? extends T> iterator;
+		private final int batchSize;
+
+		private BatchSpliterator(final Iterator<? extends T> iterator, final int batchSize) {
+			this.iterator = iterator;
+			this.batchSize = batchSize;
+		}
+
+		@Override
+		public boolean tryAdvance(final Consumer<? super T> action) {
+			if (iterator.hasNext()) {
+				action.accept(iterator.next());
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public void forEachRemaining(final Consumer<? super T> action) {
+			iterator.forEachRemaining(action);
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			if (!iterator.hasNext()) {
+				return null;
+			}
+			Object[] batch = new Object[Math.min(batchSize, MAX_INITIAL_CAPACITY)];
+			int count = 0;
+			while (count < batchSize && iterator.hasNext()) {
+				if (count == batch.length) {
+					batch = Arrays.copyOf(batch, (int) Math.min(batchSize, 2L * count));
+				}
+				batch[count++] = iterator.next();
+			}
+			return Spliterators.spliterator(batch, 0, count, characteristics());
+		}
+
+		@Override
+		public long estimateSize() {
+			return Long.MAX_VALUE;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED;
+		}
+	}
+
+	/**
+	 * Creates a stream from {@link Iterable}. If the <tt>iterable</tt> is a {@link Collection}, the stream uses the collection spliterator, which is sized and could be split efficiently when the stream
+	 * is turned to parallel (e.g. for {@link RandomAccess} lists).
 	 *
 	 * @param iterable
 	 *            the iterable to be converted to stream
@@ -1360,9 +2699,34 @@ public class ExtCollectionUtils {
 	 * @return stream
 	 */
 	public static <T> Stream<T> stream(final Iterable<T> iterable) {
+		if (iterable instanceof Collection) {
+			return ((Collection<T>) iterable).stream();
+		}
 		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterable.iterator(), Spliterator.ORDERED), false);
 	}
 
+	/**
+	 * Creates a parallel stream from {@link Iterable}. If the <tt>iterable</tt> is a {@link Collection}, the stream uses the collection spliterator. Otherwise the elements are read from the iterator in
+	 * batches of <tt>batchSize</tt> elements and each batch is processed as a separate task.
+	 *
+	 * @param iterable
+	 *            the iterable to be converted to stream
+	 * @param batchSize
+	 *            number of elements in a batch, when the <tt>iterable</tt> is not a collection
+	 * @param <T>
+	 *            elements type
+	 * @return parallel stream
+	 */
+	public static <T> Stream<T> parallelStream(final Iterable<T> iterable, final int batchSize) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Expecting batchSize to be greater than 0");
+		}
+		if (iterable instanceof Collection) {
+			return ((Collection<T>) iterable).parallelStream();
+		}
+		return StreamSupport.stream(new BatchSpliterator<>(iterable.iterator(), batchSize), true);
+	}
+
 	/**
 	 * Sort a list
 	 *
@@ -1383,4 +2747,712 @@ public class ExtCollectionUtils {
 		return list;
 	}
 
+	/**
+	 * Sorts a list by a <tt>long</tt> key. The keys are extracted once into a primitive array and sorted with a stable LSD radix sort (in parallel for large lists), then the list is permuted. The
+	 * result is the same as sorting with {@link Comparator#comparingLong(ToLongFunction)}.
+	 *
+	 * @param list
+	 *            the list to be sorted
+	 * @param keyExtractor
+	 *            function extracting the sort key
+	 * @param <V>
+	 *            the collection value type
+	 * @param <C>
+	 *            the collection type
+	 * @return the sorted list. This is the same reference as the parameter <tt>list</tt>
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V, C extends List<V>> C sortByLongKey(final C list, final ToLongFunction<? super V> keyExtractor) {
+		if (list != null && list.size() > 1) {
+			final Object[] values = list.toArray();
+			final long[] keys = new long[values.length];
+			for (int i = 0; i < values.length; i++) {
+				keys[i] = keyExtractor.applyAsLong((V) values[i]) ^ Long.MIN_VALUE;
+			}
+			permute(list, values, radixSortPermutation(keys, Long.BYTES));
+		}
+		return list;
+	}
+
+	/**
+	 * Sorts a list by an <tt>int</tt> key. The keys are extracted once into a primitive array and sorted with a stable LSD radix sort (in parallel for large lists), then the list is permuted. The
+	 * result is the same as sorting with {@link Comparator#comparingInt(ToIntFunction)}.
+	 *
+	 * @param list
+	 *            the list to be sorted
+	 * @param keyExtractor
+	 *            function extracting the sort key
+	 * @param <V>
+	 *            the collection value type
+	 * @param <C>
+	 *            the collection type
+	 * @return the sorted list. This is the same reference as the parameter <tt>list</tt>
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V, C extends List<V>> C sortByIntKey(final C list, final ToIntFunction<? super V> keyExtractor) {
+		if (list != null && list.size() > 1) {
+			final Object[] values = list.toArray();
+			final long[] keys = new long[values.length];
+			for (int i = 0; i < values.length; i++) {
+				keys[i] = (keyExtractor.applyAsInt((V) values[i]) ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+			}
+			permute(list, values, radixSortPermutation(keys, Integer.BYTES));
+		}
+		return list;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V> void permute(final List<V> list, final Object[] values, final int[] permutation) {
+		final ListIterator<V> it = list.listIterator();
+		for (final int index : permutation) {
+			it.next();
+			it.set((V) values[index]);
+		}
+	}
+
+	/**
+	 * Sorts unsigned keys with stable LSD radix sort, one byte per pass. Passes where all keys have the same byte are skipped. Large arrays are split into chunks, which are counted and scattered in
+	 * parallel; each chunk writes to its own range of every bucket, so the sort stays stable.
+	 *
+	 * @param keys
+	 *            the keys, compared as unsigned values. The array is used as buffer and its content is undefined after the sort
+	 * @param bytes
+	 *            number of low bytes of the keys to be sorted
+	 * @return the permutation - indexes of the keys in sorted order
+	 */
+	private static int[] radixSortPermutation(final long[] keys, final int bytes) {
+		final int n = keys.length;
+		final int chunks = (n >= RADIX_PARALLEL_THRESHOLD ? Math.max(1, ForkJoinPool.getCommonPoolParallelism()) * 4 : 1);
+		final int chunkSize = (n + chunks - 1) / chunks;
+		long[] k = keys;
+		long[] kBuffer = new long[n];
+		int[] p = IntStream.range(0, n).toArray();
+		int[] pBuffer = new int[n];
+		for (int shift = 0; shift < bytes * 8; shift += 8) {
+			final int byteShift = shift;
+			final long[] src = k;
+			final long[] dst = kBuffer;
+			final int[] srcPerm = p;
+			final int[] dstPerm = pBuffer;
+			final int[][] offsets = new int[chunks][256];
+			forEachChunk(chunks, c -> {
+				final int[] count = offsets[c];
+				for (int i = c * chunkSize, end = Math.min(n, i + chunkSize); i < end; i++) {
+					count[(int) (src[i] >>> byteShift) & 0xFF]++;
+				}
+			});
+			if (!countsToOffsets(offsets, n)) {
+				forEachChunk(chunks, c -> {
+					final int[] offset = offsets[c];
+					for (int i = c * chunkSize, end = Math.min(n, i + chunkSize); i < end; i++) {
+						final int target = offset[(int) (src[i] >>> byteShift) & 0xFF]++;
+						dst[target] = src[i];
+						dstPerm[target] = srcPerm[i];
+					}
+				});
+				kBuffer = k;
+				k = dst;
+				pBuffer = p;
+				p = dstPerm;
+			}
+		}
+		return p;
+	}
+
+	/**
+	 * Replaces the per chunk bucket counts with the offsets where each chunk starts writing to each bucket
+	 *
+	 * @param offsets
+	 *            the counts of every bucket, one array per chunk
+	 * @param n
+	 *            the total number of keys
+	 * @return true if all keys are in a single bucket, so the pass could be skipped
+	 */
+	static boolean countsToOffsets(final int[][] offsets, final int n) {
+		boolean singleBucket = false;
+		int pos = 0;
+		for (int b = 0; b < 256; b++) {
+			final int bucketStart = pos;
+			for (final int[] offset : offsets) {
+				final int count = offset[b];
+				offset[b] = pos;
+				pos += count;
+			}
+			singleBucket |= (pos - bucketStart == n);
+		}
+		return singleBucket;
+	}
+
+	private static void forEachChunk(final int chunks, final IntConsumer task) {
+		if (chunks > 1) {
+			IntStream.range(0, chunks).parallel().forEach(task);
+		} else {
+			task.accept(0);
+		}
+	}
+
+	/**
+	 * Sort a list in parallel using {@link Arrays#parallelSort(Object[], Comparator)}. The list elements are copied to an array, sorted and written back to the list.
+	 *
+	 * @param list
+	 *            the list to be sorted
+	 * @param cmp
+	 *            comparator used to compare collection elements
+	 * @param <V>
+	 *            the collection value type
+	 * @param <C>
+	 *            the collection type
+	 * @return the sorted list. This is the same reference as the parameter <tt>list</tt>
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V, C extends List<V>> C parallelSort(final C list, final Comparator<? super V> cmp) {
+		if (list != null && list.size() > 1) {
+			final V[] a = (V[]) list.toArray();
+			Arrays.parallelSort(a, cmp);
+			final ListIterator<V> it = list.listIterator();
+			for (final V e : a) {
+				it.next();
+				it.set(e);
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Creates a collector selecting the <tt>k</tt> smallest elements according to <tt>cmp</tt>. The elements are kept in a bounded heap, so the collector needs O(k) memory and O(n log k) time. When
+	 * used with a parallel stream each chunk is selected separately and the partial results are merged.
+	 *
+	 * @param k
+	 *            the number of elements to select
+	 * @param cmp
+	 *            comparator used to compare elements
+	 * @param <V>
+	 *            the element type
+	 * @return collector returning a list with the <tt>k</tt> smallest elements sorted in ascending order
+	 */
+	public static <V> Collector<V, ?, List<V>> bottomKCollector(final int k, final Comparator<? super V> cmp) {
+		if (k < 0) {
+			throw new IllegalArgumentException("Expecting k to be non-negative");
+		}
+		final Comparator<? super V> reversed = Collections.reverseOrder(cmp);
+		//@formatter:off
+		return Collector.<V, PriorityQueue<V>, List<V>> of(
+				() -> new PriorityQueue<>(Math.min(k, MAX_INITIAL_CAPACITY) + 1, reversed),
+				(heap, e) -> offerBounded(heap, e, k, cmp),
+				(h1, h2) -> {
+					h2.forEach(e -> offerBounded(h1, e, k, cmp));
+					return h1;
+				},
+				heap -> {
+					final List<V> result = new ArrayList<>(heap);
+					result.sort(cmp);
+					return result;
+				});
+		//@formatter:on
+	}
+
+	private static <V> void offerBounded(final PriorityQueue<V> heap, final V e, final int k, final Comparator<? super V> cmp) {
+		if (heap.size() < k) {
+			heap.add(e);
+		} else if (k > 0 && cmp.compare(e, heap.peek()) < 0) {
+			heap.poll();
+			heap.add(e);
+		}
+	}
+
+	/**
+	 * Selects the <tt>k</tt> smallest elements according to <tt>cmp</tt> without sorting the whole input. The result is the same as the first <tt>k</tt> elements of the sorted input, except the
+	 * order of equal elements is not preserved.
+	 *
+	 * @param values
+	 *            the values, could be null
+	 * @param k
+	 *            the number of elements to select
+	 * @param cmp
+	 *            comparator used to compare elements
+	 * @param <V>
+	 *            the element type
+	 * @return list with at most <tt>k</tt> smallest elements sorted in ascending order
+	 */
+	public static <V> List<V> bottomK(final Iterable<V> values, final int k, final Comparator<? super V> cmp) {
+		final Collector<V, ?, List<V>> collector = bottomKCollector(k, cmp);
+		return (values != null ? stream(values).collect(collector) : Stream.<V> empty().collect(collector));
+	}
+
+	/**
+	 * Selects the <tt>k</tt> largest elements according to <tt>cmp</tt> without sorting the whole input.
+	 *
+	 * @param values
+	 *            the values, could be null
+	 * @param k
+	 *            the number of elements to select
+	 * @param cmp
+	 *            comparator used to compare elements
+	 * @param <V>
+	 *            the element type
+	 * @return list with at most <tt>k</tt> largest elements sorted in descending order
+	 */
+	public static <V> List<V> topK(final Iterable<V> values, final int k, final Comparator<? super V> cmp) {
+		return bottomK(values, k, Collections.reverseOrder(cmp));
+	}
+
+	/**
+	 * Selects the <tt>k</tt> smallest elements according to <tt>cmp</tt> in parallel. Each chunk of the collection is selected separately and the partial results are merged.
+	 *
+	 * @param values
+	 *            the values, could be null
+	 * @param k
+	 *            the number of elements to select
+	 * @param cmp
+	 *            comparator used to compare elements
+	 * @param <V>
+	 *            the element type
+	 * @return list with at most <tt>k</tt> smallest elements sorted in ascending order
+	 * @see #bottomK(Iterable, int, Comparator)
+	 */
+	public static <V> List<V> parallelBottomK(final Collection<V> values, final int k, final Comparator<? super V> cmp) {
+		final Collector<V, ?, List<V>> collector = bottomKCollector(k, cmp);
+		return (values != null ? values.parallelStream().collect(collector) : Stream.<V> empty().collect(collector));
+	}
+
+	/**
+	 * Selects the <tt>k</tt> largest elements according to <tt>cmp</tt> in parallel. Each chunk of the collection is selected separately and the partial results are merged.
+	 *
+	 * @param values
+	 *            the values, could be null
+	 * @param k
+	 *            the number of elements to select
+	 * @param cmp
+	 *            comparator used to compare elements
+	 * @param <V>
+	 *            the element type
+	 * @return list with at most <tt>k</tt> largest elements sorted in descending order
+	 * @see #topK(Iterable, int, Comparator)
+	 */
+	public static <V> List<V> parallelTopK(final Collection<V> values, final int k, final Comparator<? super V> cmp) {
+		return parallelBottomK(values, k, Collections.reverseOrder(cmp));
+	}
+
+	/**
+	 * Groups the values by key. The values of each group keep their encounter order. The result could be passed to {@link #combineValues(Map, Supplier)}.
+	 *
+	 * @param values
+	 *            the values, could be null
+	 * @param keyExtractor
+	 *            function extracting the group key
+	 * @param <K>
+	 *            key type
+	 * @param <V>
+	 *            value type
+	 * @return map with a list of values for each key
+	 */
+	public static <K, V> Map<K, List<V>> groupBy(final Iterable<V> values, final Function<? super V, ? extends K> keyExtractor) {
+		final Map<K, List<V>> groups = new HashMap<>();
+		if (values != null) {
+			for (final V v : values) {
+				groups.computeIfAbsent(keyExtractor.apply(v), k -> new ArrayList<>()).add(v);
+			}
+		}
+		return groups;
+	}
+
+	/**
+	 * Groups the values by key in parallel. Each chunk of the values is grouped into its own map without locking and the chunk groups are merged, so the values inside a group keep the order of
+	 * <tt>values</tt>. The multi-map values could be combined with {@link ConcurrentMultiMap#combineValues(Supplier)}.
+	 *
+	 * @param values
+	 *            the values, could be null
+	 * @param keyExtractor
+	 *            function extracting the group key, must not return null
+	 * @param <K>
+	 *            key type
+	 * @param <V>
+	 *            value type
+	 * @return multi-map with the values of each key
+	 * @see ConcurrentMultiMap#groupingBy(Function)
+	 */
+	public static <K, V> ConcurrentMultiMap<K, V> parallelGroupBy(final Collection<V> values, final Function<? super V, ? extends K> keyExtractor) {
+		return (values != null ? values.parallelStream().collect(ConcurrentMultiMap.groupingBy(keyExtractor)) : new ConcurrentMultiMap<>());
+	}
+
+	/**
+	 * Inner hash join of two collections. The smaller collection is hashed by key (build side) and the other one is probed against it, in parallel for large collections. Keys are compared with
+	 * {@link Object#equals(Object)}, so null keys match each other.
+	 *
+	 * @param left
+	 *            the left collection, could be null
+	 * @param right
+	 *            the right collection, could be null
+	 * @param leftKey
+	 *            function extracting the join key of the left elements
+	 * @param rightKey
+	 *            function extracting the join key of the right elements
+	 * @param <L>
+	 *            left element type
+	 * @param <R>
+	 *            right element type
+	 * @param <K>
+	 *            key type
+	 * @return list of pairs of left and right elements with equal keys. The order of the pairs follows the probe side
+	 */
+	public static <L, R, K> List<Pair<L, R>> hashJoin(final Collection<L> left, final Collection<R> right, final Function<? super L, ? extends K> leftKey,
+			final Function<? super R, ? extends K> rightKey) {
+		if (isEmpty(left) || isEmpty(right)) {
+			return new ArrayList<>();
+		} else if (left.size() <= right.size()) {
+			final Map<K, List<L>> build = groupBy(left, leftKey);
+			return probe(right).flatMap(r -> {
+				final List<L> matches = build.get(rightKey.apply(r));
+				return (matches != null ? matches.stream().map(l -> Pair.of(l, r)) : Stream.<Pair<L, R>> empty());
+			}).collect(Collectors.toList());
+		} else {
+			final Map<K, List<R>> build = groupBy(right, rightKey);
+			return probe(left).flatMap(l -> {
+				final List<R> matches = build.get(leftKey.apply(l));
+				return (matches != null ? matches.stream().map(r -> Pair.of(l, r)) : Stream.<Pair<L, R>> empty());
+			}).collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Left outer hash join of two collections. The right collection is hashed by key and the left one is probed against it, in parallel for large collections. Keys are compared with
+	 * {@link Object#equals(Object)}, so null keys match each other.
+	 *
+	 * @param left
+	 *            the left collection, could be null
+	 * @param right
+	 *            the right collection, could be null
+	 * @param leftKey
+	 *            function extracting the join key of the left elements
+	 * @param rightKey
+	 *            function extracting the join key of the right elements
+	 * @param <L>
+	 *            left element type
+	 * @param <R>
+	 *            right element type
+	 * @param <K>
+	 *            key type
+	 * @return list of pairs of left and right elements with equal keys, in the order of the left collection. Left elements without a match are paired with null
+	 */
+	public static <L, R, K> List<Pair<L, R>> leftHashJoin(final Collection<L> left, final Collection<R> right, final Function<? super L, ? extends K> leftKey,
+			final Function<? super R, ? extends K> rightKey) {
+		if (isEmpty(left)) {
+			return new ArrayList<>();
+		}
+		final Map<K, List<R>> build = groupBy(right, rightKey);
+		return probe(left).flatMap(l -> {
+			final List<R> matches = build.get(leftKey.apply(l));
+			return (matches != null ? matches.stream().map(r -> Pair.of(l, r)) : Stream.of(Pair.<L, R> of(l, null)));
+		}).collect(Collectors.toList());
+	}
+
+	/**
+	 * Anti hash join of two collections - returns the left elements without a match in the right collection. The right collection keys are hashed and the left one is probed against them, in
+	 * parallel for large collections.
+	 *
+	 * @param left
+	 *            the left collection, could be null
+	 * @param right
+	 *            the right collection, could be null
+	 * @param leftKey
+	 *            function extracting the join key of the left elements
+	 * @param rightKey
+	 *            function extracting the join key of the right elements
+	 * @param <L>
+	 *            left element type
+	 * @param <R>
+	 *            right element type
+	 * @param <K>
+	 *            key type
+	 * @return list of the left elements, whose key is not a key of any right element, in the order of the left collection
+	 */
+	public static <L, R, K> List<L> antiHashJoin(final Collection<L> left, final Collection<R> right, final Function<? super L, ? extends K> leftKey,
+			final Function<? super R, ? extends K> rightKey) {
+		if (isEmpty(left)) {
+			return new ArrayList<>();
+		}
+		final Set<K> rightKeys = new HashSet<>(hashCapacity(size(right)));
+		if (right != null) {
+			right.forEach(r -> rightKeys.add(rightKey.apply(r)));
+		}
+		return probe(left).filter(l -> !rightKeys.contains(leftKey.apply(l))).collect(Collectors.toList());
+	}
+
+	private static <V> Stream<V> probe(final Collection<V> probeSide) {
+		return (probeSide.size() >= MAP_PARALLELISM_THRESHOLD ? probeSide.parallelStream() : probeSide.stream());
+	}
+
+	/**
+	 * Compares two collections by key in a single hashed pass. Elements with key present only in <tt>newValues</tt> are added, elements with key present only in <tt>oldValues</tt> are removed and
+	 * elements with key present in both collections, that are not equal according to <tt>equality</tt>, are changed.
+	 *
+	 * @param oldValues
+	 *            the old collection, could be null
+	 * @param newValues
+	 *            the new collection, could be null
+	 * @param keyExtractor
+	 *            function extracting the element key. The keys must be unique inside each collection
+	 * @param equality
+	 *            comparator used to check if elements with the same key are changed
+	 * @param <K>
+	 *            key type
+	 * @param <V>
+	 *            element type
+	 * @return the added, removed and changed elements
+	 */
+	public static <K, V> CollectionDiff<V> diff(final Collection<V> oldValues, final Collection<V> newValues, final Function<? super V, ? extends K> keyExtractor, final EquityComparator<V> equality) {
+		final Map<K, V> remaining = new LinkedHashMap<>(hashCapacity(size(oldValues)));
+		if (oldValues != null) {
+			for (final V v : oldValues) {
+				final K key = keyExtractor.apply(v);
+				if (remaining.containsKey(key)) {
+					throw new IllegalArgumentException("Expecting unique keys, duplicate key: " + key);
+				}
+				remaining.put(key, v);
+			}
+		}
+		final List<V> added = new ArrayList<>();
+		final List<Pair<V, V>> changed = new ArrayList<>();
+		final Set<K> newKeys = new HashSet<>(hashCapacity(size(newValues)));
+		if (newValues != null) {
+			for (final V v : newValues) {
+				final K key = keyExtractor.apply(v);
+				if (!newKeys.add(key)) {
+					throw new IllegalArgumentException("Expecting unique keys, duplicate key: " + key);
+				}
+				if (remaining.containsKey(key)) {
+					final V old = remaining.remove(key);
+					if (!equality.equals(old, v)) {
+						changed.add(Pair.of(old, v));
+					}
+				} else {
+					added.add(v);
+				}
+			}
+		}
+		return new CollectionDiff<>(added, new ArrayList<>(remaining.values()), changed);
+	}
+
+	/**
+	 * Compares two collections by key in a single hashed pass, using {@link ExtCollectionUtils#equalsEquityComparator()} to detect changed elements.
+	 *
+	 * @param oldValues
+	 *            the old collection, could be null
+	 * @param newValues
+	 *            the new collection, could be null
+	 * @param keyExtractor
+	 *            function extracting the element key. The keys must be unique inside each collection
+	 * @param <K>
+	 *            key type
+	 * @param <V>
+	 *            element type
+	 * @return the added, removed and changed elements
+	 * @see #diff(Collection, Collection, Function, EquityComparator)
+	 */
+	public static <K, V> CollectionDiff<V> diff(final Collection<V> oldValues, final Collection<V> newValues, final Function<? super V, ? extends K> keyExtractor) {
+		return diff(oldValues, newValues, keyExtractor, equalsEquityComparator());
+	}
+
+	/**
+	 * Creates the shortest edit script transforming list <tt>a</tt> into list <tt>b</tt>, using the linear space variant of the Myers O(ND) difference algorithm. The running time is O((N+M)D) and
+	 * the memory is O(N+M), where D is the number of differences. Common prefixes and suffixes are matched directly, so lists with few differences are compared in nearly linear time.
+	 *
+	 * @param a
+	 *            the old list, could be null
+	 * @param b
+	 *            the new list, could be null
+	 * @param comparator
+	 *            comparator used to check elements for equity
+	 * @param <V>
+	 *            element type
+	 * @return list of edits in order, covering every element of both lists
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> List<ListEdit<V>> editScript(final List<V> a, final List<V> b, final EquityComparator<V> comparator) {
+		final V[] x = (V[]) (a != null ? a.toArray() : new Object[0]);
+		final V[] y = (V[]) (b != null ? b.toArray() : new Object[0]);
+		final List<ListEdit<V>> edits = new ArrayList<>(x.length + y.length);
+		final int maxD = (x.length + y.length + 1) / 2;
+		final int[] forward = new int[2 * maxD + 2];
+		final int[] backward = new int[2 * maxD + 2];
+		myers(x, 0, x.length, y, 0, y.length, comparator, forward, backward, edits);
+		return edits;
+	}
+
+	/**
+	 * Creates the shortest edit script transforming list <tt>a</tt> into list <tt>b</tt> using {@link ExtCollectionUtils#equalsEquityComparator()}
+	 *
+	 * @param a
+	 *            the old list, could be null
+	 * @param b
+	 *            the new list, could be null
+	 * @param <V>
+	 *            element type
+	 * @return list of edits in order, covering every element of both lists
+	 * @see #editScript(List, List, EquityComparator)
+	 */
+	public static <V> List<ListEdit<V>> editScript(final List<V> a, final List<V> b) {
+		return editScript(a, b, equalsEquityComparator());
+	}
+
+	/**
+	 * Appends the shortest edit script of <tt>x[xStart..xEnd)</tt> and <tt>y[yStart..yEnd)</tt> to <tt>edits</tt>. The ranges are split at a point of the optimal path found by
+	 * {@link #bisect(Object[], int, int, Object[], int, int, EquityComparator, int[], int[])} and both halves are processed recursively, so the recursion depth is O(log D).
+	 */
+	private static <V> void myers(final V[] x, final int xStart, final int xEnd, final V[] y, final int yStart, final int yEnd, final EquityComparator<V> comparator, final int[] forward,
+			final int[] backward, final List<ListEdit<V>> edits) {
+		int prefix = 0;
+		while (xStart + prefix < xEnd && yStart + prefix < yEnd && comparator.equals(x[xStart + prefix], y[yStart + prefix])) {
+			edits.add(new ListEdit<>(ListEdit.Type.EQUAL, xStart + prefix, yStart + prefix, x[xStart + prefix]));
+			prefix++;
+		}
+		final int x0 = xStart + prefix;
+		final int y0 = yStart + prefix;
+		int suffix = 0;
+		while (xEnd - suffix > x0 && yEnd - suffix > y0 && comparator.equals(x[xEnd - 1 - suffix], y[yEnd - 1 - suffix])) {
+			suffix++;
+		}
+		final int x1 = xEnd - suffix;
+		final int y1 = yEnd - suffix;
+		final long split = (x0 == x1 || y0 == y1 ? -1 : bisect(x, x0, x1, y, y0, y1, comparator, forward, backward));
+		if (split < 0) {
+			for (int i = x0; i < x1; i++) {
+				edits.add(new ListEdit<>(ListEdit.Type.DELETE, i, -1, x[i]));
+			}
+			for (int j = y0; j < y1; j++) {
+				edits.add(new ListEdit<>(ListEdit.Type.INSERT, -1, j, y[j]));
+			}
+		} else {
+			final int xSplit = (int) (split >>> 32);
+			final int ySplit = (int) split;
+			myers(x, x0, xSplit, y, y0, ySplit, comparator, forward, backward, edits);
+			myers(x, xSplit, x1, y, ySplit, y1, comparator, forward, backward, edits);
+		}
+		for (int i = suffix; i > 0; i--) {
+			edits.add(new ListEdit<>(ListEdit.Type.EQUAL, xEnd - i, yEnd - i, x[xEnd - i]));
+		}
+	}
+
+	/**
+	 * Finds a point of the optimal path through <tt>x[xStart..xEnd)</tt> and <tt>y[yStart..yEnd)</tt>, where the forward and the backward searches overlap (the middle snake). The ranges must be
+	 * non-empty and must differ at both ends, so the point is never a corner of the edit graph.
+	 *
+	 * @return the split point, the x index in the high and the y index in the low 32 bits, or -1 if the ranges have no common element
+	 */
+	private static <V> long bisect(final V[] x, final int xStart, final int xEnd, final V[] y, final int yStart, final int yEnd, final EquityComparator<V> comparator, final int[] forward,
+			final int[] backward) {
+		final int n = xEnd - xStart;
+		final int m = yEnd - yStart;
+		final int maxD = (n + m + 1) / 2;
+		final int offset = maxD;
+		final int length = 2 * maxD;
+		Arrays.fill(forward, 0, length + 2, -1);
+		Arrays.fill(backward, 0, length + 2, -1);
+		forward[offset + 1] = 0;
+		backward[offset + 1] = 0;
+		final int delta = n - m;
+		// with odd delta the paths overlap during the forward search, otherwise during the backward search
+		final boolean front = (delta % 2 != 0);
+		int k1Start = 0;
+		int k1End = 0;
+		int k2Start = 0;
+		int k2End = 0;
+		for (int d = 0; d < maxD; d++) {
+			for (int k1 = -d + k1Start; k1 <= d - k1End; k1 += 2) {
+				final int k1Offset = offset + k1;
+				int px = (k1 == -d || (k1 != d && forward[k1Offset - 1] < forward[k1Offset + 1]) ? forward[k1Offset + 1] : forward[k1Offset - 1] + 1);
+				int py = px - k1;
+				while (px < n && py < m && comparator.equals(x[xStart + px], y[yStart + py])) {
+					px++;
+					py++;
+				}
+				forward[k1Offset] = px;
+				if (px > n) {
+					k1End += 2;
+				} else if (py > m) {
+					k1Start += 2;
+				} else if (front) {
+					final int k2Offset = offset + delta - k1;
+					if (k2Offset >= 0 && k2Offset < length && backward[k2Offset] != -1 && px >= n - backward[k2Offset]) {
+						return ((long) (xStart + px) << 32) | (yStart + py);
+					}
+				}
+			}
+			for (int k2 = -d + k2Start; k2 <= d - k2End; k2 += 2) {
+				final int k2Offset = offset + k2;
+				int px = (k2 == -d || (k2 != d && backward[k2Offset - 1] < backward[k2Offset + 1]) ? backward[k2Offset + 1] : backward[k2Offset - 1] + 1);
+				int py = px - k2;
+				while (px < n && py < m && comparator.equals(x[xEnd - 1 - px], y[yEnd - 1 - py])) {
+					px++;
+					py++;
+				}
+				backward[k2Offset] = px;
+				if (px > n) {
+					k2End += 2;
+				} else if (py > m) {
+					k2Start += 2;
+				} else if (!front) {
+					final int k1Offset = offset + delta - k2;
+					if (k1Offset >= 0 && k1Offset < length && forward[k1Offset] != -1) {
+						final int fx = forward[k1Offset];
+						final int fy = offset + fx - k1Offset;
+						if (fx >= n - px) {
+							return ((long) (xStart + fx) << 32) | (yStart + fy);
+						}
+					}
+				}
+			}
+		}
+		// the paths overlap only at the corners, so there is no common element
+		return -1;
+	}
+
+	/**
+	 * Creates a {@link HyperLogLog} sketch of the values, estimating their number of distinct elements with fixed memory
+	 *
+	 * @param values
+	 *            the values, could be null
+	 * @param precision
+	 *            the sketch precision
+	 * @param <V>
+	 *            value type
+	 * @return sketch of the values
+	 */
+	public static <V> HyperLogLog hyperLogLog(final Iterable<V> values, final int precision) {
+		final Collector<V, ?, HyperLogLog> collector = HyperLogLog.collector(precision);
+		return (values != null ? stream(values).collect(collector) : Stream.<V> empty().collect(collector));
+	}
+
+	/**
+	 * Creates a {@link HyperLogLog} sketch of the values in parallel. Each chunk of the values is accumulated into a separate sketch and the sketches are merged.
+	 *
+	 * @param values
+	 *            the values, could be null
+	 * @param precision
+	 *            the sketch precision
+	 * @param batchSize
+	 *            number of elements in a chunk, when the <tt>values</tt> are not a collection
+	 * @param <V>
+	 *            value type
+	 * @return sketch of the values
+	 * @see #parallelStream(Iterable, int)
+	 */
+	public static <V> HyperLogLog parallelHyperLogLog(final Iterable<V> values, final int precision, final int batchSize) {
+		final Collector<V, ?, HyperLogLog> collector = HyperLogLog.collector(precision);
+		return (values != null ? parallelStream(values, batchSize).collect(collector) : Stream.<V> empty().collect(collector));
+	}
+
+	/**
+	 * Estimates the number of distinct values with {@link HyperLogLog} sketch with default precision. Unlike <tt>toSet(values).size()</tt> the values are not stored.
+	 *
+	 * @param values
+	 *            the values, could be null
+	 * @param <V>
+	 *            value type
+	 * @return the estimated number of distinct values
+	 */
+	public static <V> long countDistinctApprox(final Iterable<V> values) {
+		return hyperLogLog(values, HyperLogLog.DEFAULT_PRECISION).cardinality();
+	}
+
 }
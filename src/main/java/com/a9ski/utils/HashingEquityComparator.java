@@ -0,0 +1,41 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils;
+
+/**
+ * {@link EquityComparator} that is able to compute a hash code consistent with its equity check. If <tt>equals(o1, o2)</tt> returns true, <tt>hashCode(o1)</tt> must be equal to <tt>hashCode(o2)</tt>.
+ * <p>
+ * Collection operations in {@link ExtCollectionUtils} use hashing comparators to build hash based lookups instead of scanning the collections linearly.
+ *
+ * @author Kiril Arabadzhiyski
+ *
+ * @param <O>
+ *            the element type
+ */
+public interface HashingEquityComparator<O> extends EquityComparator<O> {
+	/**
+	 * Calculates the hash code of the element
+	 *
+	 * @param o
+	 *            the element, could be null
+	 * @return hash code of the element, consistent with {@link #equals(Object, Object)}
+	 */
+	public int hashCode(O o);
+}
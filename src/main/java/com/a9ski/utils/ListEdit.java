@@ -0,0 +1,149 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils;
+
+import java.util.Objects;
+
+/**
+ * Single operation of an edit script transforming one list into another
+ *
+ * @author Kiril Arabadzhiyski
+ *
+ * @param <V>
+ *            element type
+ * @see ExtCollectionUtils#editScript(java.util.List, java.util.List, EquityComparator)
+ */
+public class ListEdit<V> {
+	/**
+	 * Edit operation type
+	 */
+	public enum Type {
+		/**
+		 * The element is present in both lists
+		 */
+		EQUAL,
+		/**
+		 * The element is inserted from the new list
+		 */
+		INSERT,
+		/**
+		 * The element is deleted from the old list
+		 */
+		DELETE
+	}
+
+	private final Type type;
+	private final int oldIndex;
+	private final int newIndex;
+	private final V value;
+
+	/**
+	 * Creates a new edit
+	 *
+	 * @param type
+	 *            the operation type
+	 * @param oldIndex
+	 *            the element index in the old list or -1 for {@link Type#INSERT}
+	 * @param newIndex
+	 *            the element index in the new list or -1 for {@link Type#DELETE}
+	 * @param value
+	 *            the element
+	 */
+	public ListEdit(final Type type, final int oldIndex, final int newIndex, final V value) {
+		NullUtils.checkNotNull(type, "type cannot be null");
+		this.type = type;
+		this.oldIndex = oldIndex;
+		this.newIndex = newIndex;
+		this.value = value;
+	}
+
+	/**
+	 * Gets the operation type
+	 *
+	 * @return the operation type
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the element index in the old list
+	 *
+	 * @return the element index in the old list or -1 for {@link Type#INSERT}
+	 */
+	public int getOldIndex() {
+		return oldIndex;
+	}
+
+	/**
+	 * Gets the element index in the new list
+	 *
+	 * @return the element index in the new list or -1 for {@link Type#DELETE}
+	 */
+	public int getNewIndex() {
+		return newIndex;
+	}
+
+	/**
+	 * Gets the element. For {@link Type#EQUAL} and {@link Type#DELETE} this is the element of the old list, for {@link Type#INSERT} the element of the new list
+	 *
+	 * @return the element
+	 */
+	public V getValue() {
+		return value;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(type, oldIndex, newIndex, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		final ListEdit<?> other = (ListEdit<?>) obj;
+		return type == other.type && oldIndex == other.oldIndex && newIndex == other.newIndex && Objects.equals(value, other.value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return type + " [oldIndex=" + oldIndex + ", newIndex=" + newIndex + ", value=" + value + "]";
+	}
+}
@@ -20,14 +20,14 @@
 package com.a9ski.utils;
 
 /**
- * Implements {@link EquityComparator} based on reference check
+ * Implements {@link EquityComparator} based on reference check. Hash codes are calculated using {@link System#identityHashCode(Object)}
  *
  * @author Kiril Arabadzhiyski
  *
  * @param <O>
  *            the object type
  */
-public class ReferenceEquityComparator<O> implements EquityComparator<O> {
+public class ReferenceEquityComparator<O> implements HashingEquityComparator<O> {
 
 	/*
 	 * (non-Javadoc)
@@ -39,4 +39,14 @@ public class ReferenceEquityComparator<O> implements EquityComparator<O> {
 		return o1 == o2; // NOSONAR this is the purpose of this comparator - to compare references
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.a9ski.utils.HashingEquityComparator#hashCode(java.lang.Object)
+	 */
+	@Override
+	public int hashCode(final O o) {
+		return System.identityHashCode(o);
+	}
+
 }
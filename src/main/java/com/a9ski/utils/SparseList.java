@@ -0,0 +1,242 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Sparse list storing its elements in fixed size chunks. Chunks containing only the list default value are not allocated, so a list with few non-default elements at far indexes uses memory
+ * proportional to the number of non-default chunks rather than to its size. {@link #get(int)} returns the default value for the holes without allocating them.
+ * <p>
+ * Appending and setting elements runs in constant time. Inserting and removing elements in the middle of the list shifts the following elements and runs in linear time. The list is not thread-safe.
+ *
+ * @author Kiril Arabadzhiyski
+ *
+ * @param <V>
+ *            the element type
+ */
+public class SparseList<V> extends AbstractList<V> implements RandomAccess {
+	static final int CHUNK_BITS = 10;
+	static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	private final V defaultValue;
+	private Object[][] chunks = new Object[0][];
+	private int[] nonDefaultCounts = new int[0];
+	private int size;
+
+	/**
+	 * Creates a new empty sparse list with null as default value
+	 */
+	public SparseList() {
+		this(null);
+	}
+
+	/**
+	 * Creates a new empty sparse list
+	 *
+	 * @param defaultValue
+	 *            the value of the elements that are not set
+	 */
+	public SparseList(final V defaultValue) {
+		this.defaultValue = defaultValue;
+	}
+
+	/**
+	 * Gets the value of the elements that are not set
+	 *
+	 * @return the default value
+	 */
+	public V getDefaultValue() {
+		return defaultValue;
+	}
+
+	/**
+	 * Changes the size of the list. If the list grows, the new elements are holes having the default value. If the list shrinks, the elements after <tt>newSize</tt> are removed
+	 *
+	 * @param newSize
+	 *            the new size
+	 */
+	public void setSize(final int newSize) {
+		if (newSize < 0) {
+			throw new IllegalArgumentException("Expecting newSize to be greater or equals to 0");
+		}
+		if (newSize < size) {
+			for (int i = newSize; i < size && (i & CHUNK_MASK) != 0; i++) {
+				store(i, defaultValue);
+			}
+			for (int c = (newSize + CHUNK_MASK) >>> CHUNK_BITS; c < chunks.length; c++) {
+				chunks[c] = null;
+				nonDefaultCounts[c] = 0;
+			}
+		}
+		size = newSize;
+		modCount++;
+	}
+
+	/**
+	 * Gets the number of allocated chunks
+	 *
+	 * @return the number of allocated chunks
+	 */
+	int allocatedChunks() {
+		int count = 0;
+		for (final Object[] chunk : chunks) {
+			if (chunk != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private void checkIndex(final int index, final int bound) {
+		if (index < 0 || index >= bound) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private V load(final int index) {
+		final int c = index >>> CHUNK_BITS;
+		final Object[] chunk = (c < chunks.length ? chunks[c] : null);
+		return (chunk != null ? (V) chunk[index & CHUNK_MASK] : defaultValue);
+	}
+
+	@SuppressWarnings("unchecked")
+	private V store(final int index, final V value) {
+		final int c = index >>> CHUNK_BITS;
+		final boolean isDefault = Objects.equals(value, defaultValue);
+		Object[] chunk = (c < chunks.length ? chunks[c] : null);
+		if (chunk == null) {
+			if (isDefault) {
+				return defaultValue;
+			}
+			chunk = allocateChunk(c);
+		}
+		final int offset = index & CHUNK_MASK;
+		final V old = (V) chunk[offset];
+		final boolean wasDefault = Objects.equals(old, defaultValue);
+		chunk[offset] = value;
+		if (wasDefault != isDefault) {
+			nonDefaultCounts[c] += (isDefault ? -1 : 1);
+			if (nonDefaultCounts[c] == 0) {
+				chunks[c] = null;
+			}
+		}
+		return old;
+	}
+
+	private Object[] allocateChunk(final int c) {
+		if (c >= chunks.length) {
+			final int length = Math.max(c + 1, chunks.length + (chunks.length >> 1));
+			chunks = Arrays.copyOf(chunks, length);
+			nonDefaultCounts = Arrays.copyOf(nonDefaultCounts, length);
+		}
+		final Object[] chunk = new Object[CHUNK_SIZE];
+		if (defaultValue != null) {
+			Arrays.fill(chunk, defaultValue);
+		}
+		chunks[c] = chunk;
+		return chunk;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractList#get(int)
+	 */
+	@Override
+	public V get(final int index) {
+		checkIndex(index, size);
+		return load(index);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractList#set(int, java.lang.Object)
+	 */
+	@Override
+	public V set(final int index, final V element) {
+		checkIndex(index, size);
+		return store(index, element);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractList#add(int, java.lang.Object)
+	 */
+	@Override
+	public void add(final int index, final V element) {
+		checkIndex(index, size + 1);
+		if (size == Integer.MAX_VALUE) {
+			throw new IllegalStateException("List is full");
+		}
+		size++;
+		for (int i = size - 1; i > index; i--) {
+			store(i, load(i - 1));
+		}
+		store(index, element);
+		modCount++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractList#remove(int)
+	 */
+	@Override
+	public V remove(final int index) {
+		checkIndex(index, size);
+		final V old = load(index);
+		for (int i = index; i < size - 1; i++) {
+			store(i, load(i + 1));
+		}
+		setSize(size - 1);
+		return old;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractList#clear()
+	 */
+	@Override
+	public void clear() {
+		chunks = new Object[0][];
+		nonDefaultCounts = new int[0];
+		size = 0;
+		modCount++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractCollection#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+}
@@ -0,0 +1,362 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton searching for a fixed set of needles in a single linear pass over the text, regardless of the number of needles. The automaton is compiled once and could be reused for
+ * any number of searches. In ignore-case mode the needles and the text are compared over case-folded characters.
+ * <p>
+ * The searcher is immutable and thread-safe.
+ *
+ * @author Kiril Arabadzhiyski
+ * @see StringUtils#containsAnyOf(CharSequence, StringSearcher)
+ */
+public final class StringSearcher {
+	private static final int ROOT = 0;
+
+	private final boolean ignoreCase;
+	private final String[] needles;
+	private final TransitionTable transitions;
+	private final int[] fail;
+	private final int[] output;
+	private final int[] outputLink;
+	private final boolean[] accepting;
+
+	/**
+	 * Single occurrence of a needle in the searched text
+	 */
+	public static final class Hit {
+		private final int start;
+		private final String needle;
+
+		private Hit(final int start, final String needle) {
+			this.start = start;
+			this.needle = needle;
+		}
+
+		/**
+		 * Gets the index of the first character of the occurrence
+		 *
+		 * @return the index of the first character of the occurrence
+		 */
+		public int getStart() {
+			return start;
+		}
+
+		/**
+		 * Gets the index after the last character of the occurrence
+		 *
+		 * @return the index after the last character of the occurrence
+		 */
+		public int getEnd() {
+			return start + needle.length();
+		}
+
+		/**
+		 * Gets the needle as supplied when the searcher was compiled
+		 *
+		 * @return the needle
+		 */
+		public String getNeedle() {
+			return needle;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return needle + "@" + start;
+		}
+	}
+
+	private StringSearcher(final Collection<? extends CharSequence> needles, final boolean ignoreCase) {
+		this.ignoreCase = ignoreCase;
+		final List<String> distinct = new ArrayList<>();
+		final TransitionTable table = new TransitionTable();
+		int[] firstChild = new int[16];
+		int[] nextSibling = new int[16];
+		int[] nodeOutput = new int[16];
+		char[] nodeChar = new char[16];
+		nodeOutput[ROOT] = -1;
+		int nodeCount = 1;
+		for (final CharSequence needle : needles) {
+			if (needle == null) {
+				continue;
+			}
+			int node = ROOT;
+			for (int i = 0; i < needle.length(); i++) {
+				final char c = fold(needle.charAt(i));
+				int child = table.get(node, c);
+				if (child == ROOT) {
+					if (nodeCount == firstChild.length) {
+						final int capacity = nodeCount * 2;
+						firstChild = Arrays.copyOf(firstChild, capacity);
+						nextSibling = Arrays.copyOf(nextSibling, capacity);
+						nodeOutput = Arrays.copyOf(nodeOutput, capacity);
+						nodeChar = Arrays.copyOf(nodeChar, capacity);
+					}
+					child = nodeCount++;
+					nodeOutput[child] = -1;
+					nodeChar[child] = c;
+					nextSibling[child] = firstChild[node];
+					firstChild[node] = child;
+					table.put(node, c, child);
+				}
+				node = child;
+			}
+			if (nodeOutput[node] < 0) {
+				nodeOutput[node] = distinct.size();
+				distinct.add(needle.toString());
+			}
+		}
+		this.needles = distinct.toArray(new String[distinct.size()]);
+		this.transitions = table;
+		this.output = Arrays.copyOf(nodeOutput, nodeCount);
+		this.fail = new int[nodeCount];
+		this.outputLink = new int[nodeCount];
+		this.accepting = new boolean[nodeCount];
+		linkFailures(firstChild, nextSibling, nodeChar, nodeCount);
+	}
+
+	private void linkFailures(final int[] firstChild, final int[] nextSibling, final char[] nodeChar, final int nodeCount) {
+		// breadth first, so the failure target of each node is linked before the node itself
+		final int[] queue = new int[nodeCount];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = ROOT;
+		outputLink[ROOT] = -1;
+		accepting[ROOT] = output[ROOT] >= 0;
+		while (head < tail) {
+			final int node = queue[head++];
+			for (int child = firstChild[node]; child != ROOT; child = nextSibling[child]) {
+				if (node != ROOT) {
+					final char c = nodeChar[child];
+					int f = fail[node];
+					while (f != ROOT && transitions.get(f, c) == ROOT) {
+						f = fail[f];
+					}
+					fail[child] = transitions.get(f, c);
+				}
+				final int f = fail[child];
+				outputLink[child] = (output[f] >= 0 ? f : outputLink[f]);
+				accepting[child] = output[child] >= 0 || outputLink[child] >= 0;
+				queue[tail++] = child;
+			}
+		}
+	}
+
+	/**
+	 * Compiles a case-sensitive searcher
+	 *
+	 * @param needles
+	 *            the strings to search for. Null needles are ignored
+	 * @return new searcher
+	 */
+	public static StringSearcher of(final CharSequence... needles) {
+		return of(needles != null ? Arrays.asList(needles) : null);
+	}
+
+	/**
+	 * Compiles a case-sensitive searcher
+	 *
+	 * @param needles
+	 *            the strings to search for. Null needles are ignored
+	 * @return new searcher
+	 */
+	public static StringSearcher of(final Collection<? extends CharSequence> needles) {
+		return new StringSearcher(ExtCollectionUtils.defaultCollection(needles), false);
+	}
+
+	/**
+	 * Compiles a case-insensitive searcher. Characters are compared as by {@link String#equalsIgnoreCase(String)}.
+	 *
+	 * @param needles
+	 *            the strings to search for. Null needles are ignored
+	 * @return new searcher
+	 */
+	public static StringSearcher ofIgnoreCase(final CharSequence... needles) {
+		return ofIgnoreCase(needles != null ? Arrays.asList(needles) : null);
+	}
+
+	/**
+	 * Compiles a case-insensitive searcher. Characters are compared as by {@link String#equalsIgnoreCase(String)}.
+	 *
+	 * @param needles
+	 *            the strings to search for. Null needles are ignored
+	 * @return new searcher
+	 */
+	public static StringSearcher ofIgnoreCase(final Collection<? extends CharSequence> needles) {
+		return new StringSearcher(ExtCollectionUtils.defaultCollection(needles), true);
+	}
+
+	private char fold(final char c) {
+		return (ignoreCase ? Character.toLowerCase(Character.toUpperCase(c)) : c);
+	}
+
+	private int next(final int node, final char c) {
+		int state = node;
+		while (true) {
+			final int target = transitions.get(state, c);
+			if (target != ROOT || state == ROOT) {
+				return target;
+			}
+			state = fail[state];
+		}
+	}
+
+	/**
+	 * Checks if any of the needles occurs in <tt>text</tt>. The search stops at the first occurrence.
+	 *
+	 * @param text
+	 *            the text to search in, could be null
+	 * @return true if any of the needles occurs in <tt>text</tt>. Null text doesn't contain anything
+	 */
+	public boolean containsAny(final CharSequence text) {
+		if (text == null) {
+			return false;
+		}
+		int state = ROOT;
+		if (accepting[state]) {
+			return true;
+		}
+		for (int i = 0; i < text.length(); i++) {
+			state = next(state, fold(text.charAt(i)));
+			if (accepting[state]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Finds all occurrences of the needles in <tt>text</tt>, including the overlapping ones. The hits are ordered by end position and, for the same end position, longest needle first.
+	 *
+	 * @param text
+	 *            the text to search in, could be null
+	 * @return list with all occurrences. Empty list is returned for null text
+	 */
+	public List<Hit> findAll(final CharSequence text) {
+		final List<Hit> hits = new ArrayList<>();
+		if (text == null) {
+			return hits;
+		}
+		int state = ROOT;
+		collect(state, 0, hits);
+		for (int i = 0; i < text.length(); i++) {
+			state = next(state, fold(text.charAt(i)));
+			if (accepting[state]) {
+				collect(state, i + 1, hits);
+			}
+		}
+		return hits;
+	}
+
+	private void collect(final int state, final int end, final List<Hit> hits) {
+		for (int node = (output[state] >= 0 ? state : outputLink[state]); node >= 0; node = outputLink[node]) {
+			final String needle = needles[output[node]];
+			hits.add(new Hit(end - needle.length(), needle));
+		}
+	}
+
+	/**
+	 * Checks if the searcher ignores case
+	 *
+	 * @return true if the searcher ignores case
+	 */
+	public boolean isIgnoreCase() {
+		return ignoreCase;
+	}
+
+	/**
+	 * Gets the number of distinct needles
+	 *
+	 * @return the number of distinct needles
+	 */
+	public int size() {
+		return needles.length;
+	}
+
+	/**
+	 * Open addressing hash table mapping (node, character) to the child node. The root is never a child, so 0 marks an empty slot.
+	 */
+	private static final class TransitionTable {
+		private long[] keys = new long[16];
+		private int[] targets = new int[16];
+		private int size;
+
+		private static long key(final int node, final char c) {
+			return ((long) node << 16) | c;
+		}
+
+		private static int slot(final long key, final int mask) {
+			final long h = key * 0x9E3779B97F4A7C15L;
+			return (int) (h >>> 32) & mask;
+		}
+
+		int get(final int node, final char c) {
+			final long key = key(node, c);
+			final int mask = keys.length - 1;
+			for (int slot = slot(key, mask); targets[slot] != ROOT; slot = (slot + 1) & mask) {
+				if (keys[slot] == key) {
+					return targets[slot];
+				}
+			}
+			return ROOT;
+		}
+
+		void put(final int node, final char c, final int target) {
+			if ((size + 1) * 2 > keys.length) {
+				resize();
+			}
+			insert(keys, targets, key(node, c), target);
+			size++;
+		}
+
+		private void resize() {
+			final long[] newKeys = new long[keys.length * 2];
+			final int[] newTargets = new int[targets.length * 2];
+			for (int slot = 0; slot < keys.length; slot++) {
+				if (targets[slot] != ROOT) {
+					insert(newKeys, newTargets, keys[slot], targets[slot]);
+				}
+			}
+			keys = newKeys;
+			targets = newTargets;
+		}
+
+		private static void insert(final long[] keys, final int[] targets, final long key, final int target) {
+			final int mask = keys.length - 1;
+			int slot = slot(key, mask);
+			while (targets[slot] != ROOT) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = key;
+			targets[slot] = target;
+		}
+	}
+}
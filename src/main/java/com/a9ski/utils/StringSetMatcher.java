@@ -0,0 +1,179 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Matcher checking if a string is equal to any of a fixed set of candidate strings. The candidates are compiled once into an open addressing hash table, so each check runs in constant time
+ * regardless of the number of candidates. In ignore-case mode the hash codes are calculated over case-folded characters. Checking a {@link CharSequence} doesn't create any objects.
+ * <p>
+ * The matcher is immutable and thread-safe.
+ *
+ * @author Kiril Arabadzhiyski
+ * @see StringUtils#equalsAnyOf(CharSequence, StringSetMatcher)
+ */
+public final class StringSetMatcher {
+	private final boolean ignoreCase;
+	private final boolean containsNull;
+	private final String[] keys;
+	private final int[] hashes;
+	private final int mask;
+	private final int size;
+
+	private StringSetMatcher(final Collection<? extends CharSequence> candidates, final boolean ignoreCase) {
+		this.ignoreCase = ignoreCase;
+		final int capacity = Integer.highestOneBit(Math.max(4, candidates.size() * 2 - 1)) << 1;
+		this.keys = new String[capacity];
+		this.hashes = new int[capacity];
+		this.mask = capacity - 1;
+		boolean hasNull = false;
+		int count = 0;
+		for (final CharSequence candidate : candidates) {
+			if (candidate == null) {
+				hasNull = true;
+			} else {
+				final int h = hash(candidate);
+				if (slot(candidate, h) < 0) {
+					int slot = h & mask;
+					while (keys[slot] != null) {
+						slot = (slot + 1) & mask;
+					}
+					keys[slot] = candidate.toString();
+					hashes[slot] = h;
+					count++;
+				}
+			}
+		}
+		this.containsNull = hasNull;
+		this.size = count + (hasNull ? 1 : 0);
+	}
+
+	/**
+	 * Compiles a case-sensitive matcher
+	 *
+	 * @param candidates
+	 *            the candidate strings, could contain null
+	 * @return new matcher
+	 */
+	public static StringSetMatcher of(final CharSequence... candidates) {
+		return of(candidates != null ? Arrays.asList(candidates) : null);
+	}
+
+	/**
+	 * Compiles a case-sensitive matcher
+	 *
+	 * @param candidates
+	 *            the candidate strings, could contain null
+	 * @return new matcher
+	 */
+	public static StringSetMatcher of(final Collection<? extends CharSequence> candidates) {
+		return new StringSetMatcher(ExtCollectionUtils.defaultCollection(candidates), false);
+	}
+
+	/**
+	 * Compiles a case-insensitive matcher. Case-insensitivity is defined as by {@link String#equalsIgnoreCase(String)}.
+	 *
+	 * @param candidates
+	 *            the candidate strings, could contain null
+	 * @return new matcher
+	 */
+	public static StringSetMatcher ofIgnoreCase(final CharSequence... candidates) {
+		return ofIgnoreCase(candidates != null ? Arrays.asList(candidates) : null);
+	}
+
+	/**
+	 * Compiles a case-insensitive matcher. Case-insensitivity is defined as by {@link String#equalsIgnoreCase(String)}.
+	 *
+	 * @param candidates
+	 *            the candidate strings, could contain null
+	 * @return new matcher
+	 */
+	public static StringSetMatcher ofIgnoreCase(final Collection<? extends CharSequence> candidates) {
+		return new StringSetMatcher(ExtCollectionUtils.defaultCollection(candidates), true);
+	}
+
+	private char fold(final char c) {
+		return (ignoreCase ? Character.toLowerCase(Character.toUpperCase(c)) : c);
+	}
+
+	private int hash(final CharSequence cs) {
+		int h = 0;
+		for (int i = 0; i < cs.length(); i++) {
+			h = 31 * h + fold(cs.charAt(i));
+		}
+		return h ^ (h >>> 16);
+	}
+
+	private boolean equal(final String key, final CharSequence cs) {
+		if (key.length() != cs.length()) {
+			return false;
+		}
+		for (int i = 0; i < key.length(); i++) {
+			final char c1 = key.charAt(i);
+			final char c2 = cs.charAt(i);
+			if (c1 != c2 && (!ignoreCase || fold(c1) != fold(c2))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int slot(final CharSequence cs, final int h) {
+		int slot = h & mask;
+		while (keys[slot] != null) {
+			if (hashes[slot] == h && equal(keys[slot], cs)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Checks if <tt>cs</tt> is equal to any of the candidates
+	 *
+	 * @param cs
+	 *            the string to check, could be null
+	 * @return true if <tt>cs</tt> is equal to any of the candidates. Null is equal only to null candidate
+	 */
+	public boolean matches(final CharSequence cs) {
+		return (cs == null ? containsNull : slot(cs, hash(cs)) >= 0);
+	}
+
+	/**
+	 * Checks if the matcher ignores case
+	 *
+	 * @return true if the matcher ignores case
+	 */
+	public boolean isIgnoreCase() {
+		return ignoreCase;
+	}
+
+	/**
+	 * Gets the number of distinct candidates
+	 *
+	 * @return the number of distinct candidates
+	 */
+	public int size() {
+		return size;
+	}
+}
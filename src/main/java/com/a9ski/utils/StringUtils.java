@@ -19,10 +19,10 @@
  */
 package com.a9ski.utils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.ObjectUtils;
 
@@ -34,8 +34,6 @@ import org.apache.commons.lang3.ObjectUtils;
  */
 public class StringUtils extends org.apache.commons.lang3.StringUtils {
 
-	private static final Pattern PATTERN_MORE_THAN_ONE_SPACES = Pattern.compile("( ){2,}");
-
 	/**
 	 * Compares two strings. If any of them is null, it is replaced with empty string
 	 *
@@ -63,7 +61,20 @@ public class StringUtils extends org.apache.commons.lang3.StringUtils {
 	}
 
 	/**
-	 * Checks if two string are equals after trimming.
+	 * Checks if two string are equals after trimming. The strings are compared in place, without creating trimmed copies.
+	 *
+	 * @param s1
+	 *            the first string or null
+	 * @param s2
+	 *            the second string or null
+	 * @return true if s1 is equal to s2
+	 */
+	public static boolean equalsTrim(final CharSequence s1, final CharSequence s2) {
+		return equalsTrim(s1, s2, false);
+	}
+
+	/**
+	 * Checks if two string are equals after trimming. See {@link #equalsTrim(CharSequence, CharSequence)}.
 	 *
 	 * @param s1
 	 *            the first string or null
@@ -72,7 +83,7 @@ public class StringUtils extends org.apache.commons.lang3.StringUtils {
 	 * @return true if s1 is equal to s2
 	 */
 	public static boolean equalsTrim(final String s1, final String s2) {
-		return equals(trim(s1), trim(s2));
+		return equalsTrim(s1, s2, false);
 	}
 
 	/**
@@ -84,12 +95,38 @@ public class StringUtils extends org.apache.commons.lang3.StringUtils {
 	 *            the second string or null
 	 * @return true if s1 is not equal to s2
 	 */
-	public static boolean notEqualsTrim(final String s1, final String s2) {
+	public static boolean notEqualsTrim(final CharSequence s1, final CharSequence s2) {
 		return !equalsTrim(s1, s2);
 	}
 
 	/**
-	 * Checks if two string are equals after trimming, ignoring case
+	 * Checks if two string are not equals after trimming. See {@link #notEqualsTrim(CharSequence, CharSequence)}.
+	 *
+	 * @param s1
+	 *            the first string or null
+	 * @param s2
+	 *            the second string or null
+	 * @return true if s1 is not equal to s2
+	 */
+	public static boolean notEqualsTrim(final String s1, final String s2) {
+		return !equalsTrim(s1, s2, false);
+	}
+
+	/**
+	 * Checks if two string are equals after trimming, ignoring case. The strings are compared in place, without creating trimmed copies.
+	 *
+	 * @param s1
+	 *            the first string or null
+	 * @param s2
+	 *            the second string or null
+	 * @return true if s1 is equal to s2
+	 */
+	public static boolean equalsIgnoreCaseTrim(final CharSequence s1, final CharSequence s2) {
+		return equalsTrim(s1, s2, true);
+	}
+
+	/**
+	 * Checks if two string are equals after trimming, ignoring case. See {@link #equalsIgnoreCaseTrim(CharSequence, CharSequence)}.
 	 *
 	 * @param s1
 	 *            the first string or null
@@ -98,7 +135,7 @@ public class StringUtils extends org.apache.commons.lang3.StringUtils {
 	 * @return true if s1 is equal to s2
 	 */
 	public static boolean equalsIgnoreCaseTrim(final String s1, final String s2) {
-		return equalsIgnoreCase(trim(s1), trim(s2));
+		return equalsTrim(s1, s2, true);
 	}
 
 	/**
@@ -110,10 +147,23 @@ public class StringUtils extends org.apache.commons.lang3.StringUtils {
 	 *            the second string or null
 	 * @return true if s1 is not equal to s2
 	 */
-	public static boolean notEqualsIgnoreCaseTrim(final String s1, final String s2) {
+	public static boolean notEqualsIgnoreCaseTrim(final CharSequence s1, final CharSequence s2) {
 		return !equalsIgnoreCaseTrim(s1, s2);
 	}
 
+	/**
+	 * Checks if two string are not equals after trimming, ignoring case. See {@link #notEqualsIgnoreCaseTrim(CharSequence, CharSequence)}.
+	 *
+	 * @param s1
+	 *            the first string or null
+	 * @param s2
+	 *            the second string or null
+	 * @return true if s1 is not equal to s2
+	 */
+	public static boolean notEqualsIgnoreCaseTrim(final String s1, final String s2) {
+		return !equalsTrim(s1, s2, true);
+	}
+
 	/**
 	 * Checks if two string are not equals
 	 *
@@ -148,7 +198,7 @@ public class StringUtils extends org.apache.commons.lang3.StringUtils {
 
 	/**
 	 * <p>
-	 * Checks if String contains a search String, handling {@code null}. This method uses {@link String#indexOf(String)} if possible. The method trims both strings before performing search.
+	 * Checks if String contains a search String, handling {@code null}. This method uses {@link String#indexOf(String)} if possible. The method ignores leading and trailing whitespace of both strings, without creating trimmed copies.
 	 * </p>
 	 *
 	 * <p>
@@ -162,8 +212,21 @@ public class StringUtils extends org.apache.commons.lang3.StringUtils {
 	 *            the String to find, may be null
 	 * @return true if the String contains the search String,
 	 */
+	public static boolean containsTrim(final CharSequence str, final CharSequence searchStr) {
+		return containsTrim(str, searchStr, false);
+	}
+
+	/**
+	 * Checks if String contains a search String after trimming both strings. See {@link #containsTrim(CharSequence, CharSequence)}.
+	 *
+	 * @param str
+	 *            the String to check, may be null
+	 * @param searchStr
+	 *            the String to find, may be null
+	 * @return true if the String contains the search String
+	 */
 	public static boolean containsTrim(final String str, final String searchStr) {
-		return contains(trim(str), trim(searchStr));
+		return containsTrim(str, searchStr, false);
 	}
 
 	/**
@@ -180,8 +243,21 @@ public class StringUtils extends org.apache.commons.lang3.StringUtils {
 	 *            the String to find, may be null
 	 * @return true if the String contains the search String,
 	 */
+	public static boolean containsTrimIgnoreCase(final CharSequence str, final CharSequence searchStr) {
+		return containsTrim(str, searchStr, true);
+	}
+
+	/**
+	 * Checks if String contains a search String after trimming both strings, ignoring case. See {@link #containsTrimIgnoreCase(CharSequence, CharSequence)}.
+	 *
+	 * @param str
+	 *            the String to check, may be null
+	 * @param searchStr
+	 *            the String to find, may be null
+	 * @return true if the String contains the search String
+	 */
 	public static boolean containsTrimIgnoreCase(final String str, final String searchStr) {
-		return containsIgnoreCase(trim(str), trim(searchStr));
+		return containsTrim(str, searchStr, true);
 	}
 
 	/**
@@ -198,8 +274,21 @@ public class StringUtils extends org.apache.commons.lang3.StringUtils {
 	 *            the String to find, may be null
 	 * @return true if the String doesn't contains the search String,
 	 */
+	public static boolean notContainsTrim(final CharSequence str, final CharSequence searchStr) {
+		return !containsTrim(str, searchStr);
+	}
+
+	/**
+	 * Checks if String doesn't contain a search String after trimming both strings. See {@link #notContainsTrim(CharSequence, CharSequence)}.
+	 *
+	 * @param str
+	 *            the String to check, may be null
+	 * @param searchStr
+	 *            the String to find, may be null
+	 * @return true if the String doesn't contain the search String
+	 */
 	public static boolean notContainsTrim(final String str, final String searchStr) {
-		return !contains(trim(str), trim(searchStr));
+		return !containsTrim(str, searchStr, false);
 	}
 
 	/**
@@ -216,10 +305,106 @@ public class StringUtils extends org.apache.commons.lang3.StringUtils {
 	 *            the String to find, may be null
 	 * @return true if the String doesn't contain the search String,
 	 */
-	public static boolean notContainsTrimIgnoreCase(final String str, final String searchStr) {
+	public static boolean notContainsTrimIgnoreCase(final CharSequence str, final CharSequence searchStr) {
 		return !containsTrimIgnoreCase(str, searchStr);
 	}
 
+	/**
+	 * Checks if String doesn't contain a search String after trimming both strings, ignoring case. See {@link #notContainsTrimIgnoreCase(CharSequence, CharSequence)}.
+	 *
+	 * @param str
+	 *            the String to check, may be null
+	 * @param searchStr
+	 *            the String to find, may be null
+	 * @return true if the String doesn't contain the search String
+	 */
+	public static boolean notContainsTrimIgnoreCase(final String str, final String searchStr) {
+		return !containsTrim(str, searchStr, true);
+	}
+
+	/**
+	 * Gets the index of the first character of <tt>cs</tt>, that is not removed by {@link String#trim()}
+	 *
+	 * @param cs
+	 *            the char sequence
+	 * @return index of the first non-whitespace character or <tt>cs.length()</tt> if there is no such character
+	 */
+	private static int trimStart(final CharSequence cs) {
+		int start = 0;
+		final int length = cs.length();
+		while (start < length && cs.charAt(start) <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	/**
+	 * Gets the index after the last character of <tt>cs</tt>, that is not removed by {@link String#trim()}
+	 *
+	 * @param cs
+	 *            the char sequence
+	 * @param start
+	 *            the index of the first non-whitespace character
+	 * @return index after the last non-whitespace character or <tt>start</tt> if there is no such character
+	 */
+	private static int trimEnd(final CharSequence cs, final int start) {
+		int end = cs.length();
+		while (end > start && cs.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+	/**
+	 * Compares two regions of char sequences with equal length. Case-insensitivity is defined as by {@link String#regionMatches(boolean, int, String, int, int)}.
+	 */
+	private static boolean regionMatches(final CharSequence cs1, final int start1, final CharSequence cs2, final int start2, final int length, final boolean ignoreCase) {
+		for (int i = 0; i < length; i++) {
+			final char c1 = cs1.charAt(start1 + i);
+			final char c2 = cs2.charAt(start2 + i);
+			if (c1 != c2) {
+				if (!ignoreCase) {
+					return false;
+				}
+				final char u1 = Character.toUpperCase(c1);
+				final char u2 = Character.toUpperCase(c2);
+				if (u1 != u2 && Character.toLowerCase(u1) != Character.toLowerCase(u2)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean equalsTrim(final CharSequence s1, final CharSequence s2, final boolean ignoreCase) {
+		if (s1 == s2) {
+			return true;
+		} else if (s1 == null || s2 == null) {
+			return false;
+		}
+		final int start1 = trimStart(s1);
+		final int length1 = trimEnd(s1, start1) - start1;
+		final int start2 = trimStart(s2);
+		final int length2 = trimEnd(s2, start2) - start2;
+		return length1 == length2 && regionMatches(s1, start1, s2, start2, length1, ignoreCase);
+	}
+
+	private static boolean containsTrim(final CharSequence str, final CharSequence searchStr, final boolean ignoreCase) {
+		if (str == null || searchStr == null) {
+			return false;
+		}
+		final int start = trimStart(str);
+		final int end = trimEnd(str, start);
+		final int searchStart = trimStart(searchStr);
+		final int searchLength = trimEnd(searchStr, searchStart) - searchStart;
+		for (int i = start; i <= end - searchLength; i++) {
+			if (regionMatches(str, i, searchStr, searchStart, searchLength, ignoreCase)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Calculate a hashCode of a String. Return 0 if the string is null
 	 *
@@ -262,13 +447,82 @@ public class StringUtils extends org.apache.commons.lang3.StringUtils {
 	 */
 	public static <C extends CharSequence> String joinWithFilter(final String separator, final Predicate<C> predicate, final Iterable<C> items) {
 		if (items != null) {
-			final Predicate<C> p = ObjectUtils.defaultIfNull(predicate, (x -> true));
-			return join(ExtCollectionUtils.stream(items).filter(p).collect(Collectors.toList()), separator);
+			// not presized - the predicate could reject most of the items
+			return joinWithFilter(new StringBuilder(), separator, predicate, items).toString();
 		} else {
 			return null;
 		}
 	}
 
+	/**
+	 * <p>
+	 * Appends the elements of the provided {@code Iterable}, that match the <tt>predicate</tt>, separated by <tt>separator</tt> to <tt>out</tt>. The elements are appended in a single pass, without
+	 * creating intermediate collections or strings. Null elements are appended as empty strings.
+	 * </p>
+	 *
+	 * @param out
+	 *            the appendable (e.g. {@link java.io.Writer}) where the elements are appended
+	 * @param separator
+	 *            the separator, null is the same as an empty String
+	 * @param predicate
+	 *            the predicate used to filter strings, null matches all strings
+	 * @param items
+	 *            the items to be joined, could be null
+	 * @param <A>
+	 *            appendable type
+	 * @param <C>
+	 *            string type
+	 * @return the provided <tt>out</tt>
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public static <A extends Appendable, C extends CharSequence> A joinWithFilter(final A out, final String separator, final Predicate<C> predicate, final Iterable<C> items) throws IOException {
+		if (items != null) {
+			final Predicate<C> p = ObjectUtils.defaultIfNull(predicate, (x -> true));
+			boolean first = true;
+			for (final C item : items) {
+				if (p.test(item)) {
+					if (!first && separator != null) {
+						out.append(separator);
+					}
+					first = false;
+					if (item != null) {
+						out.append(item);
+					}
+				}
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * <p>
+	 * Appends the elements of the provided {@code Iterable}, that match the <tt>predicate</tt>, separated by <tt>separator</tt> to <tt>out</tt>. The elements are appended in a single pass, without
+	 * creating intermediate collections or strings. Null elements are appended as empty strings.
+	 * </p>
+	 *
+	 * @param out
+	 *            the string builder where the elements are appended
+	 * @param separator
+	 *            the separator, null is the same as an empty String
+	 * @param predicate
+	 *            the predicate used to filter strings, null matches all strings
+	 * @param items
+	 *            the items to be joined, could be null
+	 * @param <C>
+	 *            string type
+	 * @return the provided <tt>out</tt>
+	 */
+	public static <C extends CharSequence> StringBuilder joinWithFilter(final StringBuilder out, final String separator, final Predicate<C> predicate, final Iterable<C> items) {
+		try {
+			joinWithFilter((Appendable) out, separator, predicate, items);
+			return out;
+		} catch (final IOException ex) {
+			// StringBuilder doesn't throw IOException
+			throw new UncheckedIOException(ex);
+		}
+	}
+
 	/**
 	 * <p>
 	 * Joins the elements of the provided array into single String containing the provided elements. The elements are fist filtered using <tt>predicate</tt>
@@ -347,6 +601,40 @@ public class StringUtils extends org.apache.commons.lang3.StringUtils {
 		return joinWithFilter(separator, s -> isNotBlank(s), items);
 	}
 
+	/**
+	 * Appends the non-blank elements of the provided {@code Iterable} separated by <tt>separator</tt> to <tt>out</tt> in a single pass
+	 *
+	 * @param out
+	 *            the appendable (e.g. {@link java.io.Writer}) where the elements are appended
+	 * @param separator
+	 *            the separator, null is the same as an empty String
+	 * @param items
+	 *            the items to be joined, could be null
+	 * @param <A>
+	 *            appendable type
+	 * @return the provided <tt>out</tt>
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public static <A extends Appendable> A joinNonBlanks(final A out, final String separator, final Iterable<String> items) throws IOException {
+		return joinWithFilter(out, separator, s -> isNotBlank(s), items);
+	}
+
+	/**
+	 * Appends the non-blank elements of the provided {@code Iterable} separated by <tt>separator</tt> to <tt>out</tt> in a single pass
+	 *
+	 * @param out
+	 *            the string builder where the elements are appended
+	 * @param separator
+	 *            the separator, null is the same as an empty String
+	 * @param items
+	 *            the items to be joined, could be null
+	 * @return the provided <tt>out</tt>
+	 */
+	public static StringBuilder joinNonBlanks(final StringBuilder out, final String separator, final Iterable<String> items) {
+		return joinWithFilter(out, separator, s -> isNotBlank(s), items);
+	}
+
 	/**
 	 * Replaces sequence of two or more spaces with single space
 	 * <p>
@@ -354,10 +642,239 @@ public class StringUtils extends org.apache.commons.lang3.StringUtils {
 	 *
 	 * @param s
 	 *            string to be replaced
-	 * @return string with single spaces
+	 * @return string with single spaces. The same instance is returned if <tt>s</tt> doesn't contain two consecutive spaces
 	 */
 	public static String replaceWithSingleSpace(final String s) {
-		return (isNotEmpty(s) ? PATTERN_MORE_THAN_ONE_SPACES.matcher(s).replaceAll(" ") : s);
+		final int first = (s != null ? s.indexOf("  ") : -1);
+		if (first < 0) {
+			return s;
+		}
+		final int len = s.length();
+		final StringBuilder sb = new StringBuilder(len - 1);
+		sb.append(s, 0, first + 1);
+		boolean afterSpace = true;
+		for (int i = first + 2; i < len; i++) {
+			final char c = s.charAt(i);
+			if (c != ' ' || !afterSpace) {
+				sb.append(c);
+			}
+			afterSpace = (c == ' ');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Checks if <tt>c</tt> is a whitespace character. When <tt>unicode</tt> is false only ASCII whitespace characters (space, tab, line feed, vertical tab, form feed, carriage return) are recognized, otherwise all characters
+	 * matching {@link Character#isWhitespace(char)} or {@link Character#isSpaceChar(char)} (including no-break spaces) are recognized
+	 *
+	 * @param c
+	 *            the character to check
+	 * @param unicode
+	 *            recognize Unicode whitespace characters
+	 * @return true if <tt>c</tt> is a whitespace character
+	 */
+	public static boolean isWhitespace(final char c, final boolean unicode) {
+		if (unicode) {
+			return Character.isWhitespace(c) || Character.isSpaceChar(c);
+		}
+		return c == ' ' || (c >= '\t' && c <= '\r');
+	}
+
+	/**
+	 * Checks if <tt>s</tt> is already normalized, i.e. {@link #normalizeWhitespace(String, boolean, boolean, boolean)} wouldn't change it
+	 *
+	 * @param s
+	 *            the string to check, could be null
+	 * @param trim
+	 *            leading and trailing whitespace characters are not allowed
+	 * @param collapse
+	 *            only single spaces are allowed between the words
+	 * @param unicode
+	 *            recognize Unicode whitespace characters
+	 * @return true if <tt>s</tt> is already normalized
+	 * @see #isWhitespace(char, boolean)
+	 */
+	public static boolean isNormalizedWhitespace(final CharSequence s, final boolean trim, final boolean collapse, final boolean unicode) {
+		final int len = (s != null ? s.length() : 0);
+		if (len == 0) {
+			return true;
+		}
+		if (trim && (isWhitespace(s.charAt(0), unicode) || isWhitespace(s.charAt(len - 1), unicode))) {
+			return false;
+		}
+		if (collapse) {
+			boolean afterWhitespace = false;
+			for (int i = 0; i < len; i++) {
+				final char c = s.charAt(i);
+				final boolean whitespace = isWhitespace(c, unicode);
+				if (whitespace && (afterWhitespace || c != ' ')) {
+					return false;
+				}
+				afterWhitespace = whitespace;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Normalizes the whitespace characters in <tt>s</tt> without using regular expressions.
+	 * <p>
+	 * Example: <code>normalizeWhitespace(" hello \t\n world ", true, true, false)</code> will produce <code>"hello world"</code> string
+	 *
+	 * @param s
+	 *            the string to normalize, could be null
+	 * @param trim
+	 *            remove leading and trailing whitespace characters
+	 * @param collapse
+	 *            replace each sequence of whitespace characters with single space
+	 * @param unicode
+	 *            recognize Unicode whitespace characters
+	 * @return the normalized string. The same instance is returned if <tt>s</tt> is already normalized
+	 * @see #isWhitespace(char, boolean)
+	 */
+	public static String normalizeWhitespace(final String s, final boolean trim, final boolean collapse, final boolean unicode) {
+		if (isNormalizedWhitespace(s, trim, collapse, unicode)) {
+			return s;
+		}
+		return normalizeWhitespace(s, trim, collapse, unicode, new StringBuilder(s.length())).toString();
+	}
+
+	/**
+	 * Normalizes the whitespace characters in <tt>s</tt> and appends the result to <tt>out</tt>. The buffer could be reused between calls (after {@link StringBuilder#setLength(int)} to 0) to
+	 * avoid creating a string per input.
+	 *
+	 * @param s
+	 *            the text to normalize, could be null. Nothing is appended for null
+	 * @param trim
+	 *            remove leading and trailing whitespace characters
+	 * @param collapse
+	 *            replace each sequence of whitespace characters with single space
+	 * @param unicode
+	 *            recognize Unicode whitespace characters
+	 * @param out
+	 *            the buffer receiving the normalized text
+	 * @return <tt>out</tt>
+	 * @see #normalizeWhitespace(String, boolean, boolean, boolean)
+	 */
+	public static StringBuilder normalizeWhitespace(final CharSequence s, final boolean trim, final boolean collapse, final boolean unicode, final StringBuilder out) {
+		NullUtils.checkNotNull(out, "out cannot be null");
+		if (s == null) {
+			return out;
+		}
+		int start = 0;
+		int end = s.length();
+		if (trim) {
+			while (start < end && isWhitespace(s.charAt(start), unicode)) {
+				start++;
+			}
+			while (end > start && isWhitespace(s.charAt(end - 1), unicode)) {
+				end--;
+			}
+		}
+		if (!collapse) {
+			return out.append(s, start, end);
+		}
+		boolean pendingSpace = false;
+		for (int i = start; i < end; i++) {
+			final char c = s.charAt(i);
+			if (isWhitespace(c, unicode)) {
+				pendingSpace = true;
+			} else {
+				if (pendingSpace) {
+					out.append(' ');
+					pendingSpace = false;
+				}
+				out.append(c);
+			}
+		}
+		if (pendingSpace) {
+			out.append(' ');
+		}
+		return out;
+	}
+
+	/**
+	 * Checks if any of the needles of a compiled <tt>searcher</tt> occurs in <tt>seq</tt>. The text is scanned once regardless of the number of needles.
+	 *
+	 * @param seq
+	 *            the text to search in, may be {@code null}.
+	 * @param searcher
+	 *            the compiled needles
+	 * @return {@code true} if any of the needles occurs in <tt>seq</tt>
+	 */
+	public static boolean containsAnyOf(final CharSequence seq, final StringSearcher searcher) {
+		NullUtils.checkNotNull(searcher, "searcher cannot be null");
+		return searcher.containsAny(seq);
+	}
+
+	/**
+	 * Checks if none of the needles of a compiled <tt>searcher</tt> occurs in <tt>seq</tt>. The text is scanned once regardless of the number of needles.
+	 *
+	 * @param seq
+	 *            the text to search in, may be {@code null}.
+	 * @param searcher
+	 *            the compiled needles
+	 * @return {@code true} if none of the needles occurs in <tt>seq</tt>
+	 */
+	public static boolean notContainsAnyOf(final CharSequence seq, final StringSearcher searcher) {
+		return !containsAnyOf(seq, searcher);
+	}
+
+	/**
+	 * Checks if <tt>string</tt> is equal to any of the candidates of a compiled <tt>matcher</tt>. The check runs in constant time regardless of the number of candidates.
+	 *
+	 * @param string
+	 *            to compare, may be {@code null}.
+	 * @param matcher
+	 *            the compiled candidates
+	 * @return {@code true} if the string is equal to any of the candidates
+	 */
+	public static boolean equalsAnyOf(final CharSequence string, final StringSetMatcher matcher) {
+		NullUtils.checkNotNull(matcher, "matcher cannot be null");
+		return matcher.matches(string);
+	}
+
+	/**
+	 * Checks if <tt>string</tt> is equal to any of the candidates of a compiled case-insensitive <tt>matcher</tt>. The check runs in constant time regardless of the number of candidates.
+	 *
+	 * @param string
+	 *            to compare, may be {@code null}.
+	 * @param matcher
+	 *            the compiled candidates, created with {@link StringSetMatcher#ofIgnoreCase(CharSequence...)}
+	 * @return {@code true} if the string is equal (case-insensitive) to any of the candidates
+	 */
+	public static boolean equalsAnyIgnoreCaseOf(final CharSequence string, final StringSetMatcher matcher) {
+		NullUtils.checkNotNull(matcher, "matcher cannot be null");
+		if (!matcher.isIgnoreCase()) {
+			throw new IllegalArgumentException("Expecting case-insensitive matcher");
+		}
+		return matcher.matches(string);
+	}
+
+	/**
+	 * Checks if <tt>string</tt> is not equal to any of the candidates of a compiled <tt>matcher</tt>.
+	 *
+	 * @param string
+	 *            to compare, may be {@code null}.
+	 * @param matcher
+	 *            the compiled candidates
+	 * @return {@code true} if the string is not equal to any of the candidates
+	 */
+	public static boolean notEqualsAnyOf(final CharSequence string, final StringSetMatcher matcher) {
+		return !equalsAnyOf(string, matcher);
+	}
+
+	/**
+	 * Checks if <tt>string</tt> is not equal to any of the candidates of a compiled case-insensitive <tt>matcher</tt>.
+	 *
+	 * @param string
+	 *            to compare, may be {@code null}.
+	 * @param matcher
+	 *            the compiled candidates, created with {@link StringSetMatcher#ofIgnoreCase(CharSequence...)}
+	 * @return {@code true} if the string is not equal (case-insensitive) to any of the candidates
+	 */
+	public static boolean notEqualsIgnoreCaseAnyOf(final CharSequence string, final StringSetMatcher matcher) {
+		return !equalsAnyIgnoreCaseOf(string, matcher);
 	}
 
 	/**
@@ -0,0 +1,514 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils.persistent;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable map implemented as a hash array mapped trie (HAMT). Lookups, {@link #plus(Object, Object)} and {@link #minus(Object)} are O(log<sub>32</sub> n), and the returned maps share their
+ * structure with the original one. Null keys and values are supported.
+ * <p>
+ * All mutating {@link Map} methods throw {@link UnsupportedOperationException}.
+ *
+ * @author Kiril Arabadzhiyski
+ *
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> implements Persistent {
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+	private static final int MAX_DEPTH = 8;
+
+	private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+	/**
+	 * Leaf of the trie, holding single key-value pair
+	 */
+	private static final class Leaf<K, V> extends AbstractMap.SimpleImmutableEntry<K, V> {
+		private static final long serialVersionUID = 1L;
+
+		private final int hash;
+
+		private Leaf(final int hash, final K key, final V value) {
+			super(key, value);
+			this.hash = hash;
+		}
+
+		private boolean matches(final int h, final Object k) {
+			return hash == h && Objects.equals(getKey(), k);
+		}
+	}
+
+	/**
+	 * Internal trie node. The node children are either {@link Leaf} or other nodes
+	 */
+	private abstract static class Node {
+		/**
+		 * Gets the children of the node
+		 *
+		 * @return the children of the node
+		 */
+		abstract Object[] children();
+
+		/**
+		 * Finds the leaf with given key
+		 *
+		 * @return the leaf or null if there is no such key
+		 */
+		abstract Leaf<?, ?> find(int shift, int hash, Object key);
+
+		/**
+		 * Returns a node containing the <tt>leaf</tt>. Sets <tt>added[0]</tt> to true if the key was not already present
+		 */
+		abstract Node plus(int shift, Leaf<?, ?> leaf, boolean[] added);
+
+		/**
+		 * Returns a node without the <tt>key</tt>, the same node if there is no such key or null if the node becomes empty
+		 */
+		abstract Node minus(int shift, int hash, Object key);
+
+		/**
+		 * Returns the only leaf of the node, if the node has a single child which is a leaf
+		 *
+		 * @return the only leaf of the node or null
+		 */
+		Leaf<?, ?> singleLeaf() {
+			final Object[] children = children();
+			return (children.length == 1 && children[0] instanceof Leaf ? (Leaf<?, ?>) children[0] : null);
+		}
+	}
+
+	/**
+	 * Node that stores its children in a compact array indexed by a bitmap of the occupied hash fragments
+	 */
+	private static final class BitmapNode extends Node {
+		private final int bitmap;
+		private final Object[] children;
+
+		private BitmapNode(final int bitmap, final Object[] children) {
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+
+		@Override
+		Object[] children() {
+			return children;
+		}
+
+		private static int bit(final int shift, final int hash) {
+			return 1 << ((hash >>> shift) & MASK);
+		}
+
+		private int index(final int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		@Override
+		Leaf<?, ?> find(final int shift, final int hash, final Object key) {
+			final int bit = bit(shift, hash);
+			if ((bitmap & bit) == 0) {
+				return null;
+			}
+			final Object child = children[index(bit)];
+			if (child instanceof Leaf) {
+				final Leaf<?, ?> leaf = (Leaf<?, ?>) child;
+				return (leaf.matches(hash, key) ? leaf : null);
+			}
+			return ((Node) child).find(shift + BITS, hash, key);
+		}
+
+		@Override
+		Node plus(final int shift, final Leaf<?, ?> leaf, final boolean[] added) {
+			final int bit = bit(shift, leaf.hash);
+			final int idx = index(bit);
+			if ((bitmap & bit) == 0) {
+				final Object[] newChildren = new Object[children.length + 1];
+				System.arraycopy(children, 0, newChildren, 0, idx);
+				newChildren[idx] = leaf;
+				System.arraycopy(children, idx, newChildren, idx + 1, children.length - idx);
+				added[0] = true;
+				return new BitmapNode(bitmap | bit, newChildren);
+			}
+			final Object child = children[idx];
+			final Object newChild;
+			if (child instanceof Leaf) {
+				final Leaf<?, ?> existing = (Leaf<?, ?>) child;
+				if (existing.matches(leaf.hash, leaf.getKey())) {
+					if (existing.getValue() == leaf.getValue()) {
+						return this;
+					}
+					newChild = leaf;
+				} else {
+					added[0] = true;
+					newChild = merge(shift + BITS, existing, existing.hash, leaf);
+				}
+			} else {
+				newChild = ((Node) child).plus(shift + BITS, leaf, added);
+				if (newChild == child) {
+					return this;
+				}
+			}
+			final Object[] newChildren = children.clone();
+			newChildren[idx] = newChild;
+			return new BitmapNode(bitmap, newChildren);
+		}
+
+		@Override
+		Node minus(final int shift, final int hash, final Object key) {
+			final int bit = bit(shift, hash);
+			if ((bitmap & bit) == 0) {
+				return this;
+			}
+			final int idx = index(bit);
+			final Object child = children[idx];
+			Object newChild;
+			if (child instanceof Leaf) {
+				if (!((Leaf<?, ?>) child).matches(hash, key)) {
+					return this;
+				}
+				newChild = null;
+			} else {
+				final Node node = ((Node) child).minus(shift + BITS, hash, key);
+				if (node == child) {
+					return this;
+				}
+				newChild = (node != null && node.singleLeaf() != null ? node.singleLeaf() : node);
+			}
+			if (newChild != null) {
+				final Object[] newChildren = children.clone();
+				newChildren[idx] = newChild;
+				return new BitmapNode(bitmap, newChildren);
+			}
+			if (children.length == 1) {
+				return null;
+			}
+			final Object[] newChildren = new Object[children.length - 1];
+			System.arraycopy(children, 0, newChildren, 0, idx);
+			System.arraycopy(children, idx + 1, newChildren, idx, children.length - idx - 1);
+			return new BitmapNode(bitmap & ~bit, newChildren);
+		}
+	}
+
+	/**
+	 * Node holding leaves whose keys have equal hash codes
+	 */
+	private static final class CollisionNode extends Node {
+		private final int hash;
+		private final Object[] leaves;
+
+		private CollisionNode(final int hash, final Object[] leaves) {
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+
+		@Override
+		Object[] children() {
+			return leaves;
+		}
+
+		private int indexOf(final Object key) {
+			for (int i = 0; i < leaves.length; i++) {
+				if (Objects.equals(((Leaf<?, ?>) leaves[i]).getKey(), key)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		Leaf<?, ?> find(final int shift, final int h, final Object key) {
+			if (h != hash) {
+				return null;
+			}
+			final int idx = indexOf(key);
+			return (idx != -1 ? (Leaf<?, ?>) leaves[idx] : null);
+		}
+
+		@Override
+		Node plus(final int shift, final Leaf<?, ?> leaf, final boolean[] added) {
+			if (leaf.hash != hash) {
+				added[0] = true;
+				return merge(shift, this, hash, leaf);
+			}
+			final int idx = indexOf(leaf.getKey());
+			if (idx == -1) {
+				final Object[] newLeaves = Arrays.copyOf(leaves, leaves.length + 1);
+				newLeaves[leaves.length] = leaf;
+				added[0] = true;
+				return new CollisionNode(hash, newLeaves);
+			}
+			if (((Leaf<?, ?>) leaves[idx]).getValue() == leaf.getValue()) {
+				return this;
+			}
+			final Object[] newLeaves = leaves.clone();
+			newLeaves[idx] = leaf;
+			return new CollisionNode(hash, newLeaves);
+		}
+
+		@Override
+		Node minus(final int shift, final int h, final Object key) {
+			final int idx = (h == hash ? indexOf(key) : -1);
+			if (idx == -1) {
+				return this;
+			}
+			if (leaves.length == 1) {
+				return null;
+			}
+			final Object[] newLeaves = new Object[leaves.length - 1];
+			System.arraycopy(leaves, 0, newLeaves, 0, idx);
+			System.arraycopy(leaves, idx + 1, newLeaves, idx, leaves.length - idx - 1);
+			return new CollisionNode(hash, newLeaves);
+		}
+	}
+
+	/**
+	 * Creates a node containing <tt>child</tt> (a leaf or a collision node) and the <tt>leaf</tt>, that have different keys, but share the hash fragments before <tt>shift</tt>
+	 */
+	private static Node merge(final int shift, final Object child, final int childHash, final Leaf<?, ?> leaf) {
+		if (childHash == leaf.hash) {
+			return new CollisionNode(childHash, new Object[] { child, leaf });
+		}
+		final int childFragment = (childHash >>> shift) & MASK;
+		final int leafFragment = (leaf.hash >>> shift) & MASK;
+		if (childFragment == leafFragment) {
+			return new BitmapNode(1 << childFragment, new Object[] { merge(shift + BITS, child, childHash, leaf) });
+		}
+		final Object[] children = (childFragment < leafFragment ? new Object[] { child, leaf } : new Object[] { leaf, child });
+		return new BitmapNode((1 << childFragment) | (1 << leafFragment), children);
+	}
+
+	private final Node root;
+	private final int size;
+
+	private PersistentHashMap(final Node root, final int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * Returns an empty map
+	 *
+	 * @param <K>
+	 *            the key type
+	 * @param <V>
+	 *            the value type
+	 * @return empty map
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentHashMap<K, V> empty() {
+		return (PersistentHashMap<K, V>) EMPTY;
+	}
+
+	/**
+	 * Creates a map containing the entries of <tt>map</tt>. If the <tt>map</tt> is already a persistent map, it is returned as is.
+	 *
+	 * @param map
+	 *            the map (could be null)
+	 * @param <K>
+	 *            the key type
+	 * @param <V>
+	 *            the value type
+	 * @return map containing the entries of <tt>map</tt>
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentHashMap<K, V> from(final Map<? extends K, ? extends V> map) {
+		if (map instanceof PersistentHashMap) {
+			return (PersistentHashMap<K, V>) map;
+		}
+		return PersistentHashMap.<K, V> empty().plusAll(map);
+	}
+
+	private static int hash(final Object key) {
+		final int h = Objects.hashCode(key);
+		return h ^ (h >>> 16);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#containsKey(java.lang.Object)
+	 */
+	@Override
+	public boolean containsKey(final Object key) {
+		return root != null && root.find(0, hash(key), key) != null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#get(java.lang.Object)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(final Object key) {
+		final Leaf<?, ?> leaf = (root != null ? root.find(0, hash(key), key) : null);
+		return (leaf != null ? (V) leaf.getValue() : null);
+	}
+
+	/**
+	 * Returns a new map with <tt>key</tt> associated with <tt>value</tt>
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @return a new map with <tt>key</tt> associated with <tt>value</tt>, or this map if the key is already associated with the same value instance
+	 */
+	public PersistentHashMap<K, V> plus(final K key, final V value) {
+		final Leaf<K, V> leaf = new Leaf<>(hash(key), key, value);
+		if (root == null) {
+			return new PersistentHashMap<>(new BitmapNode(BitmapNode.bit(0, leaf.hash), new Object[] { leaf }), 1);
+		}
+		final boolean[] added = new boolean[1];
+		final Node newRoot = root.plus(0, leaf, added);
+		return (newRoot == root ? this : new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size));
+	}
+
+	/**
+	 * Returns a new map with all entries of <tt>map</tt> added
+	 *
+	 * @param map
+	 *            the entries to be added (could be null)
+	 * @return a new map with all entries of <tt>map</tt> added
+	 */
+	public PersistentHashMap<K, V> plusAll(final Map<? extends K, ? extends V> map) {
+		PersistentHashMap<K, V> result = this;
+		if (map != null) {
+			for (final Map.Entry<? extends K, ? extends V> e : map.entrySet()) {
+				result = result.plus(e.getKey(), e.getValue());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a new map without <tt>key</tt>
+	 *
+	 * @param key
+	 *            the key
+	 * @return a new map without <tt>key</tt>, or this map if there is no such key
+	 */
+	public PersistentHashMap<K, V> minus(final Object key) {
+		if (root == null) {
+			return this;
+		}
+		final Node newRoot = root.minus(0, hash(key), key);
+		if (newRoot == root) {
+			return this;
+		}
+		return (newRoot == null ? empty() : new PersistentHashMap<>(newRoot, size - 1));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#entrySet()
+	 */
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new AbstractSet<Map.Entry<K, V>>() {
+			@Override
+			public Iterator<Map.Entry<K, V>> iterator() {
+				return new EntryIterator<>(root);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Depth-first iterator over the leaves of the trie
+	 */
+	private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+		private final Object[][] stack = new Object[MAX_DEPTH][];
+		private final int[] positions = new int[MAX_DEPTH];
+		private int depth = -1;
+		private Leaf<K, V> next;
+
+		private EntryIterator(final Node root) {
+			if (root != null) {
+				push(root);
+				advance();
+			}
+		}
+
+		private void push(final Node node) {
+			depth++;
+			stack[depth] = node.children();
+			positions[depth] = 0;
+		}
+
+		@SuppressWarnings("unchecked")
+		private void advance() {
+			next = null;
+			while (depth >= 0) {
+				if (positions[depth] < stack[depth].length) {
+					final Object child = stack[depth][positions[depth]++];
+					if (child instanceof Leaf) {
+						next = (Leaf<K, V>) child;
+						return;
+					}
+					push((Node) child);
+				} else {
+					stack[depth] = null;
+					depth--;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			final Leaf<K, V> result = next;
+			advance();
+			return result;
+		}
+	}
+}
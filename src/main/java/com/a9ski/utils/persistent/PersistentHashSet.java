@@ -0,0 +1,172 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils.persistent;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Immutable set backed by {@link PersistentHashMap}. Lookups, {@link #plus(Object)} and {@link #minus(Object)} are O(log<sub>32</sub> n), and the returned sets share their structure with the
+ * original one.
+ * <p>
+ * All mutating {@link java.util.Set} methods throw {@link UnsupportedOperationException}.
+ *
+ * @author Kiril Arabadzhiyski
+ *
+ * @param <E>
+ *            the element type
+ */
+public final class PersistentHashSet<E> extends AbstractSet<E> implements Persistent {
+	private static final PersistentHashSet<?> EMPTY = new PersistentHashSet<>(PersistentHashMap.empty());
+
+	private final PersistentHashMap<E, Boolean> map;
+
+	private PersistentHashSet(final PersistentHashMap<E, Boolean> map) {
+		this.map = map;
+	}
+
+	/**
+	 * Returns an empty set
+	 *
+	 * @param <E>
+	 *            the element type
+	 * @return empty set
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> PersistentHashSet<E> empty() {
+		return (PersistentHashSet<E>) EMPTY;
+	}
+
+	/**
+	 * Creates a set containing <tt>elements</tt>
+	 *
+	 * @param elements
+	 *            the elements
+	 * @param <E>
+	 *            the element type
+	 * @return set containing <tt>elements</tt>
+	 */
+	@SafeVarargs
+	public static <E> PersistentHashSet<E> of(final E... elements) {
+		return PersistentHashSet.<E> empty().plusAll(elements != null ? Arrays.asList(elements) : null);
+	}
+
+	/**
+	 * Creates a set containing the <tt>elements</tt>. If the <tt>elements</tt> is already a persistent set, it is returned as is.
+	 *
+	 * @param elements
+	 *            the elements (could be null)
+	 * @param <E>
+	 *            the element type
+	 * @return set containing <tt>elements</tt>
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> PersistentHashSet<E> from(final Collection<? extends E> elements) {
+		if (elements instanceof PersistentHashSet) {
+			return (PersistentHashSet<E>) elements;
+		}
+		return PersistentHashSet.<E> empty().plusAll(elements);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractCollection#size()
+	 */
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractCollection#contains(java.lang.Object)
+	 */
+	@Override
+	public boolean contains(final Object o) {
+		return map.containsKey(o);
+	}
+
+	/**
+	 * Returns a new set with <tt>element</tt> added
+	 *
+	 * @param element
+	 *            the element
+	 * @return a new set with <tt>element</tt> added, or this set if it already contains the element
+	 */
+	public PersistentHashSet<E> plus(final E element) {
+		final PersistentHashMap<E, Boolean> newMap = map.plus(element, Boolean.TRUE);
+		return (newMap == map ? this : new PersistentHashSet<>(newMap));
+	}
+
+	/**
+	 * Returns a new set with <tt>elements</tt> added
+	 *
+	 * @param elements
+	 *            the elements (could be null)
+	 * @return a new set with <tt>elements</tt> added
+	 */
+	public PersistentHashSet<E> plusAll(final Collection<? extends E> elements) {
+		PersistentHashSet<E> result = this;
+		if (elements != null) {
+			for (final E e : elements) {
+				result = result.plus(e);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a new set without <tt>element</tt>
+	 *
+	 * @param element
+	 *            the element
+	 * @return a new set without <tt>element</tt>, or this set if there is no such element
+	 */
+	public PersistentHashSet<E> minus(final Object element) {
+		final PersistentHashMap<E, Boolean> newMap = map.minus(element);
+		return (newMap == map ? this : new PersistentHashSet<>(newMap));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractCollection#iterator()
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		final Iterator<Map.Entry<E, Boolean>> it = map.entrySet().iterator();
+		return new Iterator<E>() {
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public E next() {
+				return it.next().getKey();
+			}
+		};
+	}
+}
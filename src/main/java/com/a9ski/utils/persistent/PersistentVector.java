@@ -0,0 +1,331 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils.persistent;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list implemented as a persistent vector (32-way trie with tail). Reading an element, {@link #plus(Object)}, {@link #with(int, Object)} and {@link #pop()} are O(log<sub>32</sub> n),
+ * and the returned vectors share their structure with the original one.
+ * <p>
+ * All mutating {@link java.util.List} methods throw {@link UnsupportedOperationException}.
+ *
+ * @author Kiril Arabadzhiyski
+ *
+ * @param <E>
+ *            the element type
+ */
+public final class PersistentVector<E> extends AbstractList<E> implements RandomAccess, Persistent {
+	private static final int BITS = 5;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+
+	private static final Object[] EMPTY_ARRAY = new Object[0];
+	private static final Node EMPTY_NODE = new Node(new Object[WIDTH]);
+	private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, EMPTY_ARRAY);
+
+	/**
+	 * Internal trie node. Leaf nodes hold elements, the other nodes hold child nodes
+	 */
+	private static final class Node {
+		private final Object[] array;
+
+		private Node(final Object[] array) {
+			this.array = array;
+		}
+	}
+
+	private final int size;
+	private final int shift;
+	private final Node root;
+	private final Object[] tail;
+
+	private PersistentVector(final int size, final int shift, final Node root, final Object[] tail) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+	}
+
+	/**
+	 * Returns an empty vector
+	 *
+	 * @param <E>
+	 *            the element type
+	 * @return empty vector
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> PersistentVector<E> empty() {
+		return (PersistentVector<E>) EMPTY;
+	}
+
+	/**
+	 * Creates a vector containing <tt>elements</tt>
+	 *
+	 * @param elements
+	 *            the elements
+	 * @param <E>
+	 *            the element type
+	 * @return vector containing <tt>elements</tt>
+	 */
+	@SafeVarargs
+	public static <E> PersistentVector<E> of(final E... elements) {
+		return PersistentVector.<E> empty().plusAll(elements != null ? Arrays.asList(elements) : null);
+	}
+
+	/**
+	 * Creates a vector containing the <tt>elements</tt>. If the <tt>elements</tt> is already a vector, it is returned as is.
+	 *
+	 * @param elements
+	 *            the elements (could be null)
+	 * @param <E>
+	 *            the element type
+	 * @return vector containing <tt>elements</tt>
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> PersistentVector<E> from(final Collection<? extends E> elements) {
+		if (elements instanceof PersistentVector) {
+			return (PersistentVector<E>) elements;
+		}
+		return PersistentVector.<E> empty().plusAll(elements);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractCollection#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	private int tailOffset() {
+		return (size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS);
+	}
+
+	private Object[] arrayFor(final int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		if (index >= tailOffset()) {
+			return tail;
+		}
+		Node node = root;
+		for (int level = shift; level > 0; level -= BITS) {
+			node = (Node) node.array[(index >>> level) & MASK];
+		}
+		return node.array;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractList#get(int)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(final int index) {
+		return (E) arrayFor(index)[index & MASK];
+	}
+
+	/**
+	 * Returns a new vector with <tt>element</tt> appended at the end
+	 *
+	 * @param element
+	 *            the element
+	 * @return a new vector with <tt>element</tt> appended at the end
+	 */
+	public PersistentVector<E> plus(final E element) {
+		if (size - tailOffset() < WIDTH) {
+			final Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+			newTail[tail.length] = element;
+			return new PersistentVector<>(size + 1, shift, root, newTail);
+		}
+		final Node tailNode = new Node(tail);
+		Node newRoot;
+		int newShift = shift;
+		if ((size >>> BITS) > (1 << shift)) {
+			newRoot = new Node(new Object[WIDTH]);
+			newRoot.array[0] = root;
+			newRoot.array[1] = newPath(shift, tailNode);
+			newShift += BITS;
+		} else {
+			newRoot = pushTail(shift, root, tailNode);
+		}
+		return new PersistentVector<>(size + 1, newShift, newRoot, new Object[] { element });
+	}
+
+	/**
+	 * Returns a new vector with <tt>elements</tt> appended at the end
+	 *
+	 * @param elements
+	 *            the elements (could be null)
+	 * @return a new vector with <tt>elements</tt> appended at the end
+	 */
+	public PersistentVector<E> plusAll(final Collection<? extends E> elements) {
+		PersistentVector<E> result = this;
+		if (elements != null) {
+			for (final E e : elements) {
+				result = result.plus(e);
+			}
+		}
+		return result;
+	}
+
+	private Node pushTail(final int level, final Node parent, final Node tailNode) {
+		final int subIndex = ((size - 1) >>> level) & MASK;
+		final Node result = new Node(parent.array.clone());
+		final Node nodeToInsert;
+		if (level == BITS) {
+			nodeToInsert = tailNode;
+		} else {
+			final Node child = (Node) parent.array[subIndex];
+			nodeToInsert = (child != null ? pushTail(level - BITS, child, tailNode) : newPath(level - BITS, tailNode));
+		}
+		result.array[subIndex] = nodeToInsert;
+		return result;
+	}
+
+	private static Node newPath(final int level, final Node node) {
+		if (level == 0) {
+			return node;
+		}
+		final Node result = new Node(new Object[WIDTH]);
+		result.array[0] = newPath(level - BITS, node);
+		return result;
+	}
+
+	/**
+	 * Returns a new vector with the element at <tt>index</tt> replaced with <tt>element</tt>
+	 *
+	 * @param index
+	 *            the element index
+	 * @param element
+	 *            the new element
+	 * @return a new vector with the element at <tt>index</tt> replaced
+	 */
+	public PersistentVector<E> with(final int index, final E element) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		if (index >= tailOffset()) {
+			final Object[] newTail = tail.clone();
+			newTail[index & MASK] = element;
+			return new PersistentVector<>(size, shift, root, newTail);
+		}
+		return new PersistentVector<>(size, shift, doAssoc(shift, root, index, element), tail);
+	}
+
+	private static Node doAssoc(final int level, final Node node, final int index, final Object element) {
+		final Node result = new Node(node.array.clone());
+		if (level == 0) {
+			result.array[index & MASK] = element;
+		} else {
+			final int subIndex = (index >>> level) & MASK;
+			result.array[subIndex] = doAssoc(level - BITS, (Node) node.array[subIndex], index, element);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a new vector without the last element
+	 *
+	 * @return a new vector without the last element
+	 * @throws IllegalStateException
+	 *             if the vector is empty
+	 */
+	public PersistentVector<E> pop() {
+		if (size == 0) {
+			throw new IllegalStateException("Cannot pop from an empty vector");
+		}
+		if (size == 1) {
+			return empty();
+		}
+		if (size - tailOffset() > 1) {
+			return new PersistentVector<>(size - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+		}
+		final Object[] newTail = arrayFor(size - 2);
+		Node newRoot = popTail(shift, root);
+		int newShift = shift;
+		if (newRoot == null) {
+			newRoot = EMPTY_NODE;
+		}
+		if (shift > BITS && newRoot.array[1] == null) {
+			newRoot = (Node) newRoot.array[0];
+			newShift -= BITS;
+		}
+		return new PersistentVector<>(size - 1, newShift, newRoot, newTail);
+	}
+
+	private Node popTail(final int level, final Node node) {
+		final int subIndex = ((size - 2) >>> level) & MASK;
+		if (level > BITS) {
+			final Node newChild = popTail(level - BITS, (Node) node.array[subIndex]);
+			if (newChild == null && subIndex == 0) {
+				return null;
+			}
+			final Node result = new Node(node.array.clone());
+			result.array[subIndex] = newChild;
+			return result;
+		} else if (subIndex == 0) {
+			return null;
+		} else {
+			final Node result = new Node(node.array.clone());
+			result.array[subIndex] = null;
+			return result;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractList#iterator()
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int index = 0;
+			private Object[] array = (size > 0 ? arrayFor(0) : EMPTY_ARRAY);
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public E next() {
+				if (index >= size) {
+					throw new NoSuchElementException();
+				}
+				if (index > 0 && (index & MASK) == 0) {
+					array = arrayFor(index);
+				}
+				return (E) array[index++ & MASK];
+			}
+		};
+	}
+}
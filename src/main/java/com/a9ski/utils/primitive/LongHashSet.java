@@ -0,0 +1,336 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils.primitive;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * Hash set of primitive <tt>long</tt> values. The set uses open addressing with linear probing, so no boxing and no per-entry objects are created.
+ *
+ * @author Kiril Arabadzhiyski
+ *
+ */
+public class LongHashSet {
+	private static final float LOAD_FACTOR = 0.5f;
+	private static final int MIN_CAPACITY = 8;
+
+	/**
+	 * The value 0 marks a free slot, so the key 0 is tracked separately
+	 */
+	private long[] keys;
+	private boolean containsZero;
+	private int size;
+	private int mask;
+	private int resizeThreshold;
+
+	/**
+	 * Creates a new empty set
+	 */
+	public LongHashSet() {
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 * Creates a new empty set that can hold <tt>expectedSize</tt> elements without rehashing
+	 *
+	 * @param expectedSize
+	 *            the expected number of elements
+	 */
+	public LongHashSet(final int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("Expecting expectedSize to be greater or equals to 0");
+		}
+		allocate(tableSize(expectedSize));
+	}
+
+	/**
+	 * Creates a new set containing <tt>values</tt>
+	 *
+	 * @param values
+	 *            the values
+	 * @return a new set containing <tt>values</tt>
+	 */
+	public static LongHashSet of(final long... values) {
+		final LongHashSet set = new LongHashSet(values != null ? values.length : 0);
+		if (values != null) {
+			for (final long value : values) {
+				set.add(value);
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Calculates the hash table slot of a key
+	 *
+	 * @param key
+	 *            the key
+	 * @return mixed hash code of the key
+	 */
+	static int mix(final long key) {
+		final long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Calculates the hash table size needed for <tt>expectedSize</tt> elements
+	 *
+	 * @param expectedSize
+	 *            the expected number of elements
+	 * @return power of two table size
+	 */
+	static int tableSize(final int expectedSize) {
+		final long needed = Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / LOAD_FACTOR));
+		if (needed > (1 << 30)) {
+			throw new IllegalArgumentException("Too many elements: " + expectedSize);
+		}
+		return Integer.highestOneBit((int) needed - 1) << 1;
+	}
+
+	private void allocate(final int capacity) {
+		keys = new long[capacity];
+		mask = capacity - 1;
+		resizeThreshold = (int) (capacity * LOAD_FACTOR);
+	}
+
+	/**
+	 * Gets the number of elements in the set
+	 *
+	 * @return the number of elements in the set
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the set is empty
+	 *
+	 * @return true if the set is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Checks if the set contains <tt>value</tt>
+	 *
+	 * @param value
+	 *            the value
+	 * @return true if the set contains <tt>value</tt>
+	 */
+	public boolean contains(final long value) {
+		if (value == 0) {
+			return containsZero;
+		}
+		int slot = mix(value) & mask;
+		long existing;
+		while ((existing = keys[slot]) != 0) {
+			if (existing == value) {
+				return true;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * Adds <tt>value</tt> to the set
+	 *
+	 * @param value
+	 *            the value
+	 * @return true if the set did not already contain the value
+	 */
+	public boolean add(final long value) {
+		if (value == 0) {
+			if (containsZero) {
+				return false;
+			}
+			containsZero = true;
+			size++;
+			return true;
+		}
+		int slot = mix(value) & mask;
+		long existing;
+		while ((existing = keys[slot]) != 0) {
+			if (existing == value) {
+				return false;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = value;
+		size++;
+		if (size > resizeThreshold) {
+			rehash(keys.length << 1);
+		}
+		return true;
+	}
+
+	/**
+	 * Removes <tt>value</tt> from the set
+	 *
+	 * @param value
+	 *            the value
+	 * @return true if the set contained the value
+	 */
+	public boolean remove(final long value) {
+		if (value == 0) {
+			if (!containsZero) {
+				return false;
+			}
+			containsZero = false;
+			size--;
+			return true;
+		}
+		int slot = mix(value) & mask;
+		long existing;
+		while ((existing = keys[slot]) != 0) {
+			if (existing == value) {
+				keys[slot] = 0;
+				shiftKeys(slot);
+				size--;
+				return true;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * Moves the keys following a removed slot, so no probe sequence is broken
+	 *
+	 * @param removedSlot
+	 *            the removed slot
+	 */
+	private void shiftKeys(final int removedSlot) {
+		int free = removedSlot;
+		int slot = (free + 1) & mask;
+		long key;
+		while ((key = keys[slot]) != 0) {
+			final int home = mix(key) & mask;
+			if (((slot - home) & mask) >= ((slot - free) & mask)) {
+				keys[free] = key;
+				keys[slot] = 0;
+				free = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private void rehash(final int newCapacity) {
+		final long[] oldKeys = keys;
+		allocate(newCapacity);
+		for (final long key : oldKeys) {
+			if (key != 0) {
+				int slot = mix(key) & mask;
+				while (keys[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+			}
+		}
+	}
+
+	/**
+	 * Removes all elements
+	 */
+	public void clear() {
+		Arrays.fill(keys, 0);
+		containsZero = false;
+		size = 0;
+	}
+
+	/**
+	 * Returns a new array containing the elements of the set in no particular order
+	 *
+	 * @return a new array containing the elements of the set
+	 */
+	public long[] toArray() {
+		final long[] result = new long[size];
+		int ind = 0;
+		if (containsZero) {
+			result[ind++] = 0;
+		}
+		for (final long key : keys) {
+			if (key != 0) {
+				result[ind++] = key;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a stream over the elements of the set in no particular order
+	 *
+	 * @return a stream over the elements of the set
+	 */
+	public LongStream stream() {
+		return Arrays.stream(toArray());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		int result = 0;
+		for (final long key : keys) {
+			result += Long.hashCode(key);
+		}
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof LongHashSet)) {
+			return false;
+		}
+		final LongHashSet other = (LongHashSet) obj;
+		if (size != other.size || containsZero != other.containsZero) {
+			return false;
+		}
+		for (final long key : keys) {
+			if (key != 0 && !other.contains(key)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+}
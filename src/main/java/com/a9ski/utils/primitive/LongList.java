@@ -0,0 +1,341 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils.primitive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Growable list of primitive <tt>long</tt> values. The values are stored in an <tt>long[]</tt> array, so no boxing is performed.
+ *
+ * @author Kiril Arabadzhiyski
+ *
+ */
+public class LongList {
+	private static final int DEFAULT_CAPACITY = 10;
+
+	private long[] values;
+	private int size;
+
+	/**
+	 * Creates a new empty list
+	 */
+	public LongList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new empty list with given initial capacity
+	 *
+	 * @param initialCapacity
+	 *            the initial capacity
+	 */
+	public LongList(final int initialCapacity) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("Expecting initialCapacity to be greater or equals to 0");
+		}
+		values = new long[initialCapacity];
+	}
+
+	/**
+	 * Creates a new list containing <tt>values</tt>
+	 *
+	 * @param values
+	 *            the values
+	 * @return a new list containing <tt>values</tt>
+	 */
+	public static LongList of(final long... values) {
+		final LongList list = new LongList(values != null ? values.length : 0);
+		list.addAll(values);
+		return list;
+	}
+
+	/**
+	 * Gets the number of elements in the list
+	 *
+	 * @return the number of elements in the list
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the list is empty
+	 *
+	 * @return true if the list is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Appends the value at the end of the list
+	 *
+	 * @param value
+	 *            the value
+	 */
+	public void add(final long value) {
+		ensureCapacity(size + 1);
+		values[size++] = value;
+	}
+
+	/**
+	 * Appends all values at the end of the list
+	 *
+	 * @param newValues
+	 *            the values (could be null)
+	 */
+	public void addAll(final long... newValues) {
+		if (newValues != null) {
+			ensureCapacity(size + newValues.length);
+			System.arraycopy(newValues, 0, values, size, newValues.length);
+			size += newValues.length;
+		}
+	}
+
+	/**
+	 * Appends all values of <tt>list</tt> at the end of this list
+	 *
+	 * @param list
+	 *            the list (could be null)
+	 */
+	public void addAll(final LongList list) {
+		if (list != null) {
+			ensureCapacity(size + list.size);
+			System.arraycopy(list.values, 0, values, size, list.size);
+			size += list.size;
+		}
+	}
+
+	/**
+	 * Gets the element at <tt>index</tt>
+	 *
+	 * @param index
+	 *            the element index
+	 * @return the element at <tt>index</tt>
+	 */
+	public long get(final int index) {
+		checkIndex(index);
+		return values[index];
+	}
+
+	/**
+	 * Sets the element at <tt>index</tt>
+	 *
+	 * @param index
+	 *            the element index
+	 * @param value
+	 *            the new value
+	 * @return the previous value
+	 */
+	public long set(final int index, final long value) {
+		checkIndex(index);
+		final long old = values[index];
+		values[index] = value;
+		return old;
+	}
+
+	/**
+	 * Removes the element at <tt>index</tt>
+	 *
+	 * @param index
+	 *            the element index
+	 * @return the removed value
+	 */
+	public long removeAt(final int index) {
+		checkIndex(index);
+		final long old = values[index];
+		System.arraycopy(values, index + 1, values, index, size - index - 1);
+		size--;
+		return old;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of <tt>value</tt>
+	 *
+	 * @param value
+	 *            the value
+	 * @return the index of the value or -1 if there is no such value
+	 */
+	public int indexOf(final long value) {
+		for (int i = 0; i < size; i++) {
+			if (values[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Checks if the list contains <tt>value</tt>
+	 *
+	 * @param value
+	 *            the value
+	 * @return true if the list contains <tt>value</tt>
+	 */
+	public boolean contains(final long value) {
+		return indexOf(value) != -1;
+	}
+
+	/**
+	 * Removes all elements
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Ensures that the list can hold at least <tt>minCapacity</tt> elements without growing
+	 *
+	 * @param minCapacity
+	 *            the min capacity
+	 */
+	public void ensureCapacity(final int minCapacity) {
+		if (minCapacity > values.length) {
+			values = Arrays.copyOf(values, Math.max(minCapacity, values.length + (values.length >> 1) + 1));
+		}
+	}
+
+	/**
+	 * Shrinks the capacity of the list to its size
+	 */
+	public void trimToSize() {
+		if (values.length > size) {
+			values = Arrays.copyOf(values, size);
+		}
+	}
+
+	/**
+	 * Sorts the list in ascending order
+	 */
+	public void sort() {
+		Arrays.sort(values, 0, size);
+	}
+
+	/**
+	 * Calculates the sum of the elements
+	 *
+	 * @return the sum of the elements
+	 */
+	public long sum() {
+		long sum = 0;
+		for (int i = 0; i < size; i++) {
+			sum += values[i];
+		}
+		return sum;
+	}
+
+	/**
+	 * Calculates the average of the elements
+	 *
+	 * @return the average or 0 if the list is empty
+	 */
+	public double average() {
+		return (size > 0 ? stream().average().getAsDouble() : 0D);
+	}
+
+	/**
+	 * Returns a new array containing the elements of the list
+	 *
+	 * @return a new array containing the elements of the list
+	 */
+	public long[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+	/**
+	 * Returns a stream over the elements of the list
+	 *
+	 * @return a stream over the elements of the list
+	 */
+	public LongStream stream() {
+		return Arrays.stream(values, 0, size);
+	}
+
+	/**
+	 * Returns a new list with the boxed elements of the list
+	 *
+	 * @return a new ArrayList with the boxed elements of the list
+	 */
+	public List<Long> toList() {
+		final List<Long> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(values[i]);
+		}
+		return list;
+	}
+
+	private void checkIndex(final int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		int result = 1;
+		for (int i = 0; i < size; i++) {
+			result = 31 * result + Long.hashCode(values[i]);
+		}
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof LongList)) {
+			return false;
+		}
+		final LongList other = (LongList) obj;
+		if (size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (values[i] != other.values[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+}
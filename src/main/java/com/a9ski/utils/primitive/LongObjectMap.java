@@ -0,0 +1,361 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils.primitive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hash map with primitive <tt>long</tt> keys. The map uses open addressing with linear probing, so keys are not boxed and no per-entry objects are created.
+ *
+ * @author Kiril Arabadzhiyski
+ *
+ * @param <V>
+ *            the value type
+ */
+public class LongObjectMap<V> {
+	private static final float LOAD_FACTOR = 0.5f;
+
+	/**
+	 * The key 0 marks a free slot, so the value of key 0 is tracked separately
+	 */
+	private long[] keys;
+	private Object[] values;
+	private boolean containsZero;
+	private V zeroValue;
+	private int size;
+	private int mask;
+	private int resizeThreshold;
+
+	/**
+	 * Creates a new empty map
+	 */
+	public LongObjectMap() {
+		this(0);
+	}
+
+	/**
+	 * Creates a new empty map that can hold <tt>expectedSize</tt> entries without rehashing
+	 *
+	 * @param expectedSize
+	 *            the expected number of entries
+	 */
+	public LongObjectMap(final int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("Expecting expectedSize to be greater or equals to 0");
+		}
+		allocate(LongHashSet.tableSize(expectedSize));
+	}
+
+	private void allocate(final int capacity) {
+		keys = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		resizeThreshold = (int) (capacity * LOAD_FACTOR);
+	}
+
+	/**
+	 * Gets the number of entries in the map
+	 *
+	 * @return the number of entries in the map
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the map is empty
+	 *
+	 * @return true if the map is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	private int slotOf(final long key) {
+		int slot = LongHashSet.mix(key) & mask;
+		long existing;
+		while ((existing = keys[slot]) != 0) {
+			if (existing == key) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Checks if the map contains <tt>key</tt>
+	 *
+	 * @param key
+	 *            the key
+	 * @return true if the map contains <tt>key</tt>
+	 */
+	public boolean containsKey(final long key) {
+		return (key == 0 ? containsZero : slotOf(key) != -1);
+	}
+
+	/**
+	 * Gets the value of <tt>key</tt>
+	 *
+	 * @param key
+	 *            the key
+	 * @return the value of <tt>key</tt> or null if there is no such key
+	 */
+	public V get(final long key) {
+		return getOrDefault(key, null);
+	}
+
+	/**
+	 * Gets the value of <tt>key</tt>
+	 *
+	 * @param key
+	 *            the key
+	 * @param defaultValue
+	 *            the value returned if there is no such key
+	 * @return the value of <tt>key</tt> or <tt>defaultValue</tt> if there is no such key
+	 */
+	@SuppressWarnings("unchecked")
+	public V getOrDefault(final long key, final V defaultValue) {
+		if (key == 0) {
+			return (containsZero ? zeroValue : defaultValue);
+		}
+		final int slot = slotOf(key);
+		return (slot != -1 ? (V) values[slot] : defaultValue);
+	}
+
+	/**
+	 * Associates <tt>value</tt> with <tt>key</tt>
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @return the previous value of <tt>key</tt> or null if there was no such key
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(final long key, final V value) {
+		if (key == 0) {
+			final V old = zeroValue;
+			if (!containsZero) {
+				containsZero = true;
+				size++;
+			}
+			zeroValue = value;
+			return old;
+		}
+		int slot = LongHashSet.mix(key) & mask;
+		long existing;
+		while ((existing = keys[slot]) != 0) {
+			if (existing == key) {
+				final V old = (V) values[slot];
+				values[slot] = value;
+				return old;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		size++;
+		if (size > resizeThreshold) {
+			rehash(keys.length << 1);
+		}
+		return null;
+	}
+
+	/**
+	 * Removes <tt>key</tt> from the map
+	 *
+	 * @param key
+	 *            the key
+	 * @return the previous value of <tt>key</tt> or null if there was no such key
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(final long key) {
+		if (key == 0) {
+			final V old = zeroValue;
+			if (containsZero) {
+				containsZero = false;
+				zeroValue = null;
+				size--;
+			}
+			return old;
+		}
+		final int slot = slotOf(key);
+		if (slot == -1) {
+			return null;
+		}
+		final V old = (V) values[slot];
+		keys[slot] = 0;
+		values[slot] = null;
+		shiftKeys(slot);
+		size--;
+		return old;
+	}
+
+	/**
+	 * Moves the entries following a removed slot, so no probe sequence is broken
+	 *
+	 * @param removedSlot
+	 *            the removed slot
+	 */
+	private void shiftKeys(final int removedSlot) {
+		int free = removedSlot;
+		int slot = (free + 1) & mask;
+		long key;
+		while ((key = keys[slot]) != 0) {
+			final int home = LongHashSet.mix(key) & mask;
+			if (((slot - home) & mask) >= ((slot - free) & mask)) {
+				keys[free] = key;
+				values[free] = values[slot];
+				keys[slot] = 0;
+				values[slot] = null;
+				free = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private void rehash(final int newCapacity) {
+		final long[] oldKeys = keys;
+		final Object[] oldValues = values;
+		allocate(newCapacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			final long key = oldKeys[i];
+			if (key != 0) {
+				int slot = LongHashSet.mix(key) & mask;
+				while (keys[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * Removes all entries
+	 */
+	public void clear() {
+		Arrays.fill(keys, 0);
+		Arrays.fill(values, null);
+		containsZero = false;
+		zeroValue = null;
+		size = 0;
+	}
+
+	/**
+	 * Performs the <tt>action</tt> for each entry of the map in no particular order
+	 *
+	 * @param action
+	 *            the action
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(final LongObjectConsumer<? super V> action) {
+		if (containsZero) {
+			action.accept(0, zeroValue);
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != 0) {
+				action.accept(keys[i], (V) values[i]);
+			}
+		}
+	}
+
+	/**
+	 * Returns a new array containing the keys of the map in no particular order
+	 *
+	 * @return a new array containing the keys of the map
+	 */
+	public long[] keys() {
+		final LongList result = new LongList(size);
+		forEach((k, v) -> result.add(k));
+		return result.toArray();
+	}
+
+	/**
+	 * Returns a new list containing the values of the map in the same order as {@link #keys()}
+	 *
+	 * @return a new list containing the values of the map
+	 */
+	public List<V> values() {
+		final List<V> result = new ArrayList<>(size);
+		forEach((k, v) -> result.add(v));
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		int result = (containsZero ? Objects.hashCode(zeroValue) : 0);
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != 0) {
+				result += Long.hashCode(keys[i]) ^ Objects.hashCode(values[i]);
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof LongObjectMap)) {
+			return false;
+		}
+		final LongObjectMap<?> other = (LongObjectMap<?>) obj;
+		if (size != other.size || containsZero != other.containsZero || !Objects.equals(zeroValue, other.zeroValue)) {
+			return false;
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != 0) {
+				final int slot = other.slotOf(keys[i]);
+				if (slot == -1 || !Objects.equals(values[i], other.values[slot])) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("{");
+		forEach((k, v) -> sb.append(sb.length() > 1 ? ", " : "").append(k).append('=').append(v));
+		return sb.append('}').toString();
+	}
+}
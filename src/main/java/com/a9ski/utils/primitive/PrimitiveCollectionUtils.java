@@ -0,0 +1,276 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils.primitive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import com.a9ski.utils.EquityComparator;
+import com.a9ski.utils.ExtCollectionUtils;
+
+/**
+ * Utilities bridging the primitive collections with {@link ExtCollectionUtils} and the java collections
+ *
+ * @author Kiril Arabadzhiyski
+ *
+ */
+public class PrimitiveCollectionUtils {
+
+	/**
+	 * Returns the indexes of all occurrences of <tt>element</tt>
+	 *
+	 * @param list
+	 *            the list to be checked
+	 * @param element
+	 *            element searched for
+	 * @param startIndex
+	 *            search starting index
+	 * @param comparator
+	 *            comparator used to compare equity
+	 * @param <D>
+	 *            collection value type
+	 * @return list with the indexes of the element in ascending order
+	 * @see ExtCollectionUtils#allIndexesOfArray(Collection, Object, int, EquityComparator)
+	 */
+	public static <D> IntList allIndexesOf(final Collection<D> list, final D element, final int startIndex, final EquityComparator<D> comparator) {
+		return IntList.of(ExtCollectionUtils.allIndexesOfArray(list, element, startIndex, comparator));
+	}
+
+	/**
+	 * Returns the indexes of all occurrences of <tt>element</tt> using {@link ExtCollectionUtils#equalsEquityComparator()}
+	 *
+	 * @param list
+	 *            the list to be checked
+	 * @param element
+	 *            element searched for
+	 * @param startIndex
+	 *            search starting index
+	 * @param <D>
+	 *            collection value type
+	 * @return list with the indexes of the element in ascending order
+	 */
+	public static <D> IntList allIndexesOf(final Collection<D> list, final D element, final int startIndex) {
+		return allIndexesOf(list, element, startIndex, ExtCollectionUtils.equalsEquityComparator());
+	}
+
+	/**
+	 * Converts a collection of numbers into {@link IntList}. Null values are skipped
+	 *
+	 * @param values
+	 *            the numbers (could be null)
+	 * @return a new list with the int values of the numbers
+	 */
+	public static IntList toIntList(final Collection<? extends Number> values) {
+		final IntList list = new IntList(ExtCollectionUtils.size(values));
+		if (values != null) {
+			for (final Number n : values) {
+				if (n != null) {
+					list.add(n.intValue());
+				}
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Converts a collection of numbers into {@link LongList}. Null values are skipped
+	 *
+	 * @param values
+	 *            the numbers (could be null)
+	 * @return a new list with the long values of the numbers
+	 */
+	public static LongList toLongList(final Collection<? extends Number> values) {
+		final LongList list = new LongList(ExtCollectionUtils.size(values));
+		if (values != null) {
+			for (final Number n : values) {
+				if (n != null) {
+					list.add(n.longValue());
+				}
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Converts a collection of dates into {@link LongList} of epoch milliseconds (see {@link Date#getTime()}). Null values are skipped
+	 *
+	 * @param dates
+	 *            the dates (could be null)
+	 * @return a new list with the epoch milliseconds of the dates
+	 */
+	public static LongList toTimeList(final Collection<? extends Date> dates) {
+		final LongList list = new LongList(ExtCollectionUtils.size(dates));
+		if (dates != null) {
+			for (final Date d : dates) {
+				if (d != null) {
+					list.add(d.getTime());
+				}
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Converts a collection of numbers into {@link LongHashSet}. Null values are skipped
+	 *
+	 * @param values
+	 *            the numbers (could be null)
+	 * @return a new set with the long values of the numbers
+	 */
+	public static LongHashSet toLongHashSet(final Collection<? extends Number> values) {
+		final LongHashSet set = new LongHashSet(ExtCollectionUtils.size(values));
+		if (values != null) {
+			for (final Number n : values) {
+				if (n != null) {
+					set.add(n.longValue());
+				}
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Converts a map with number keys into {@link LongObjectMap}. Entries with null keys are skipped
+	 *
+	 * @param map
+	 *            the map (could be null)
+	 * @param <V>
+	 *            value type
+	 * @return a new map with the long values of the keys
+	 */
+	public static <V> LongObjectMap<V> toLongObjectMap(final Map<? extends Number, V> map) {
+		final LongObjectMap<V> result = new LongObjectMap<>(ExtCollectionUtils.size(map));
+		if (map != null) {
+			for (final Map.Entry<? extends Number, V> e : map.entrySet()) {
+				if (e.getKey() != null) {
+					result.put(e.getKey().longValue(), e.getValue());
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a new {@link LongList} containing <tt><i>a</i> - <i>b</i></tt>. The order of <tt><i>a</i></tt> is preserved
+	 *
+	 * @param a
+	 *            the list to subtract from (if null empty list is returned)
+	 * @param b
+	 *            the values to subtract (could be null)
+	 * @return a new list with the results
+	 */
+	public static LongList subtract(final LongList a, final LongHashSet b) {
+		final LongList result = new LongList(a != null ? a.size() : 0);
+		if (a != null) {
+			for (int i = 0; i < a.size(); i++) {
+				final long value = a.get(i);
+				if (b == null || !b.contains(value)) {
+					result.add(value);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a new {@link LongList} containing <tt><i>a</i> - <i>b</i></tt>. The order of <tt><i>a</i></tt> is preserved
+	 *
+	 * @param a
+	 *            the list to subtract from (if null empty list is returned)
+	 * @param b
+	 *            the values to subtract (could be null)
+	 * @return a new list with the results
+	 */
+	public static LongList subtract(final LongList a, final LongList b) {
+		return subtract(a, b != null ? LongHashSet.of(b.toArray()) : null);
+	}
+
+	/**
+	 * Creates intersection between two lists
+	 *
+	 * @param a
+	 *            first list
+	 * @param b
+	 *            second list
+	 * @return a new set representing intersection between two lists
+	 */
+	public static LongHashSet intersect(final LongList a, final LongList b) {
+		final LongHashSet result = new LongHashSet();
+		if (a != null && b != null && !a.isEmpty() && !b.isEmpty()) {
+			final LongHashSet bValues = LongHashSet.of(b.toArray());
+			for (int i = 0; i < a.size(); i++) {
+				final long value = a.get(i);
+				if (bValues.contains(value)) {
+					result.add(value);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets map values for each key. Keys that are not contained in the map are skipped
+	 *
+	 * @param map
+	 *            the map
+	 * @param keys
+	 *            the keys
+	 * @param <V>
+	 *            value type
+	 * @return list containing map values of each key
+	 * @see ExtCollectionUtils#getMapValues(Map, Collection)
+	 */
+	public static <V> List<V> getMapValues(final LongObjectMap<V> map, final long... keys) {
+		final List<V> result = new ArrayList<>();
+		if (map != null && keys != null) {
+			for (final long key : keys) {
+				if (map.containsKey(key)) {
+					result.add(map.get(key));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Splits a list into lists with max number of elements equals to <tt>maxSize</tt>
+	 *
+	 * @param list
+	 *            list to be split
+	 * @param maxSize
+	 *            max size of the sub lists
+	 * @return a list of lists, each having size <tt>maxSize</tt>. The last list could contain less than <tt>maxSize</tt> elements
+	 * @see ExtCollectionUtils#split(Collection, int, java.util.function.Supplier)
+	 */
+	public static List<LongList> split(final LongList list, final int maxSize) {
+		final List<LongList> result = new ArrayList<>();
+		if (list != null && maxSize > 0) {
+			final long[] values = list.toArray();
+			for (int from = 0; from < values.length; from += maxSize) {
+				result.add(LongList.of(Arrays.copyOfRange(values, from, Math.min(values.length, from + maxSize))));
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class BloomFilterTest {
+
+	@Test
+	public void testNoFalseNegatives() throws Exception {
+		final List<Long> values = new ArrayList<>();
+		for (long i = 0; i < 100000; i++) {
+			values.add(i * 31);
+		}
+		final BloomFilter<Long> filter = BloomFilter.of(values, 0.01);
+		for (final Long v : values) {
+			assertTrue(filter.mightContain(v));
+		}
+		assertTrue(filter.expectedFalsePositiveProbability() < 0.02);
+	}
+
+	@Test
+	public void testFalsePositiveRate() throws Exception {
+		final BloomFilter<String> filter = BloomFilter.<String> builder().expectedInsertions(10000).falsePositiveProbability(0.01).build();
+		for (int i = 0; i < 10000; i++) {
+			filter.put("value-" + i);
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 100000; i++) {
+			if (filter.mightContain("other-" + i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue("False positives: " + falsePositives, falsePositives < 2000);
+		assertFalse(filter.put("value-1"));
+		filter.clear();
+		assertFalse(filter.mightContain("value-1"));
+	}
+
+	@Test
+	public void testSizing() throws Exception {
+		final BloomFilter<String> filter = BloomFilter.<String> builder().expectedInsertions(1000).falsePositiveProbability(0.01).build();
+		assertEquals(7, filter.hashFunctions());
+		assertEquals(9600, filter.bitSize());
+		assertTrue(BloomFilter.of(null, 0.5).bitSize() > 0);
+		assertEquals(BloomFilter.hash64(new String("abc")), BloomFilter.hash64(new StringBuilder("abc")));
+		assertEquals(BloomFilter.hash64(42), BloomFilter.hash64(Integer.valueOf(42)));
+		// longs differing only in the high bits have the same hashCode(), but different 64 bit hash codes
+		assertEquals(Long.valueOf(1L << 32 | 1).hashCode(), Long.valueOf(1L << 33 | 2).hashCode());
+		assertTrue(BloomFilter.hash64(1L << 32 | 1) != BloomFilter.hash64(1L << 33 | 2));
+
+		final BloomFilter.Builder<Integer> builder = BloomFilter.<Integer> builder();
+		final long small = builder.build(Arrays.asList(1, 2, 3)).bitSize();
+		final List<Integer> values = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			values.add(i);
+		}
+		assertTrue(builder.build(values).bitSize() > small);
+		try {
+			BloomFilter.builder().falsePositiveProbability(1.0);
+			fail("Expected IllegalArgumentException");
+		} catch (final IllegalArgumentException ex) {
+			// expected
+		}
+	}
+}
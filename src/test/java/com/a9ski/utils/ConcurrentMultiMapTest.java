@@ -0,0 +1,160 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class ConcurrentMultiMapTest {
+
+	@Test
+	public void testPutGetRemove() throws Exception {
+		final ConcurrentMultiMap<String, Integer> map = new ConcurrentMultiMap<>();
+		assertTrue(map.isEmpty());
+		map.put("a", 1);
+		map.put("a", 2);
+		map.putAll("b", Arrays.asList(3, 4));
+		map.putAll("c", null);
+		assertEquals(2, map.size());
+		assertEquals(4, map.valueCount());
+		assertEquals(Arrays.asList(1, 2), new ArrayList<>(map.get("a")));
+		assertTrue(map.get("c").isEmpty());
+		assertFalse(map.containsKey("c"));
+
+		final Map<String, List<Integer>> snapshot = map.snapshot();
+		assertEquals(Arrays.asList(3, 4), new ArrayList<>(map.remove("b")));
+		assertEquals(Arrays.asList(3, 4), snapshot.get("b"));
+		assertEquals(new HashSet<>(Arrays.asList("a")), map.keySet());
+		assertEquals(new HashSet<>(Arrays.asList(1, 2)), ExtCollectionUtils.combineValues(map.asMap(), HashSet::new));
+
+		final Map<String, Collection<Integer>> view = map.asMap();
+		assertEquals(1, view.size());
+		assertEquals(Arrays.asList(1, 2), new ArrayList<>(view.get("a")));
+		try {
+			view.get("a").add(3);
+			fail("Expected UnsupportedOperationException");
+		} catch (final UnsupportedOperationException ex) {
+			// expected
+		}
+		try {
+			view.values().iterator().next().clear();
+			fail("Expected UnsupportedOperationException");
+		} catch (final UnsupportedOperationException ex) {
+			// expected
+		}
+		try {
+			view.clear();
+			fail("Expected UnsupportedOperationException");
+		} catch (final UnsupportedOperationException ex) {
+			// expected
+		}
+		assertEquals(2, map.valueCount());
+	}
+
+	@Test
+	public void testConcurrentPutAndRemove() throws Exception {
+		final ConcurrentMultiMap<Integer, Integer> map = new ConcurrentMultiMap<>();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		final AtomicBoolean done = new AtomicBoolean(false);
+		final List<Future<?>> writers = new ArrayList<>();
+		for (int t = 0; t < 2; t++) {
+			writers.add(executor.submit(() -> {
+				for (int i = 0; i < 100000; i++) {
+					map.put(i % 4, i);
+				}
+			}));
+		}
+		writers.add(executor.submit(() -> {
+			for (int i = 0; i < 100000; i += 4) {
+				map.putAll(i % 3, Arrays.asList(i, i + 1, i + 2, i + 3));
+			}
+		}));
+		final Future<Long> remover = executor.submit(() -> {
+			long removed = 0;
+			while (!done.get()) {
+				for (int key = 0; key < 4; key++) {
+					// the removed values must not change after the removal
+					final Collection<Integer> values = map.remove(key);
+					final int size = values.size();
+					Thread.yield();
+					assertEquals(size, values.size());
+					removed += size;
+				}
+			}
+			return removed;
+		});
+		for (final Future<?> f : writers) {
+			f.get();
+		}
+		done.set(true);
+		final long removed = remover.get();
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+		assertEquals(300000, removed + map.valueCount());
+		assertEquals(map.valueCount(), map.parallelValues().count());
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertEquals(0, map.valueCount());
+	}
+
+	@Test
+	public void testConcurrentWriters() throws Exception {
+		final ConcurrentMultiMap<Integer, Integer> map = new ConcurrentMultiMap<>();
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		final List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			final int thread = t;
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < 10000; i++) {
+					map.put(i % 100, thread * 10000 + i);
+				}
+			}));
+		}
+		for (final Future<?> f : futures) {
+			f.get();
+		}
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+
+		assertEquals(100, map.size());
+		assertEquals(80000, map.valueCount());
+		assertEquals(800, map.get(42).size());
+		assertEquals(80000, map.combineValuesSized(ArrayList::new).size());
+		assertEquals(80000, map.combineValues(HashSet::new).size());
+		assertEquals(80000, map.parallelValues().collect(Collectors.toSet()).size());
+	}
+}
@@ -19,6 +19,7 @@
  */
 package com.a9ski.utils;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -29,19 +30,39 @@ import static org.junit.Assert.fail;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.TreeMap;
 import java.util.TreeSet;
-
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Test;
 
+import com.a9ski.utils.persistent.PersistentHashMap;
+import com.a9ski.utils.persistent.PersistentHashSet;
+import com.a9ski.utils.persistent.PersistentVector;
+
 public class ExtCollectionUtilsTest {
 
 	@Test
@@ -315,6 +336,38 @@ public class ExtCollectionUtilsTest {
 		assertNull(ExtCollectionUtils.removeAll((Collection<Integer>) null, Arrays.asList(1, 2, 3, 4)));
 	}
 
+	@Test
+	public void testRemoveAllElement() throws Exception {
+		assertEquals(Arrays.asList(2, 3), ExtCollectionUtils.removeAll(ExtCollectionUtils.toList(1, 2, 1, 1, 3, 1), 1));
+		assertEquals(Arrays.asList(2, 3), ExtCollectionUtils.removeAll(new LinkedList<>(Arrays.asList(1, 2, 1, 1, 3, 1)), 1));
+		assertEquals(new HashSet<>(Arrays.asList(2, 3)), ExtCollectionUtils.removeAll(ExtCollectionUtils.toSet(1, 2, 3), 1));
+		assertNull(ExtCollectionUtils.removeAll((List<Integer>) null, 1));
+
+		final EquityComparator<Integer> sameParity = (a, b) -> a % 2 == b % 2;
+		assertEquals(Arrays.asList(2, 4), ExtCollectionUtils.removeAll(ExtCollectionUtils.toList(1, 2, 3, 4, 5), 7, sameParity));
+		assertEquals(Arrays.asList(1, 3), ExtCollectionUtils.removeAll(new LinkedList<>(Arrays.asList(1, 2, 3, 4)), new LinkedList<>(Arrays.asList(6)), sameParity));
+	}
+
+	@Test
+	public void testRandomAccessAndSequentialLists() throws Exception {
+		final List<Integer> arrayList = ExtCollectionUtils.toList(1, 2, 3, 2);
+		final List<Integer> linkedList = new LinkedList<>(arrayList);
+		for (final List<Integer> list : Arrays.asList(arrayList, linkedList)) {
+			assertEquals(1, ExtCollectionUtils.indexOf(list, 2, 0));
+			assertEquals(1, ExtCollectionUtils.indexOf(list, 2, -3));
+			assertEquals(3, ExtCollectionUtils.indexOf(list, 2, 2));
+			assertEquals(-1, ExtCollectionUtils.indexOf(list, 2, 4));
+			assertEquals(Integer.valueOf(3), ExtCollectionUtils.getN(list, 2, null));
+			assertEquals(Integer.valueOf(42), ExtCollectionUtils.getN(list, 4, 42));
+		}
+
+		assertEquals(Integer.valueOf(3), ExtCollectionUtils.removeIndex(arrayList, 2, ExtCollectionUtils.equalsEquityComparator()));
+		assertNull(ExtCollectionUtils.removeIndex(arrayList, 5, ExtCollectionUtils.equalsEquityComparator()));
+		assertNull(ExtCollectionUtils.removeIndex(arrayList, -1, ExtCollectionUtils.equalsEquityComparator()));
+		assertEquals(Arrays.asList(1, 2, 2), arrayList);
+		assertEquals(Integer.valueOf(1), ExtCollectionUtils.removeIndex(ExtCollectionUtils.toSet(1), 0, ExtCollectionUtils.equalsEquityComparator()));
+	}
+
 	@Test
 	public void testSubstract() throws Exception {
 		final List<Integer> a = ExtCollectionUtils.toList(1, 1, 2, 2, 3, 4);
@@ -322,6 +375,28 @@ public class ExtCollectionUtilsTest {
 		assertEquals(Arrays.asList(3, 4), ExtCollectionUtils.subtract(a, b));
 	}
 
+	@Test
+	public void testHashingEquityComparator() throws Exception {
+		final HashingEquityComparator<String> ignoreCase = ExtCollectionUtils.hashingEquityComparator((x, y) -> StringUtils.equalsIgnoreCase(x, y), x -> StringUtils.hashCode(StringUtils.lowerCase(x)));
+		final List<String> a = ExtCollectionUtils.toList("a", "B", "c", "A", null, "d");
+		final List<String> b = ExtCollectionUtils.toList("b", "A", null);
+
+		assertEquals(Arrays.asList("c", "d"), ExtCollectionUtils.subtract(a, b, ignoreCase));
+		assertEquals(a, ExtCollectionUtils.subtract(a, null, ignoreCase));
+		assertEquals(new ArrayList<String>(), ExtCollectionUtils.subtract(null, b, ignoreCase));
+		assertEquals(new HashSet<>(Arrays.asList("a", "B", "A", null)), ExtCollectionUtils.intersect(a, b, ignoreCase));
+		assertEquals(new HashSet<>(), ExtCollectionUtils.intersect(a, null, ignoreCase));
+
+		final EquityComparator<String> plain = ignoreCase;
+		assertEquals(Arrays.asList("c", "d"), ExtCollectionUtils.subtract(a, b, plain));
+
+		assertEquals(Arrays.asList("c", "d"), ExtCollectionUtils.removeAll(new ArrayList<>(a), b, ignoreCase));
+		assertEquals(Arrays.asList("a", "c", "A", "d"), ExtCollectionUtils.removeAll(ExtCollectionUtils.toList(a), ExtCollectionUtils.toList("B", null)));
+
+		assertTrue(ExtCollectionUtils.equalsEquityComparator() instanceof HashingEquityComparator);
+		assertEquals(new HashSet<>(Arrays.asList(2, 3)), ExtCollectionUtils.intersect(Arrays.asList(1, 2, 3), Arrays.asList(2, 3, 4), ExtCollectionUtils.equalsEquityComparator()));
+	}
+
 	@Test
 	public void testAllIndexesOf() throws Exception {
 		final List<Integer> list = ExtCollectionUtils.toList(1, 1, 2, 1, 1, 4, 1);
@@ -333,6 +408,22 @@ public class ExtCollectionUtilsTest {
 		assertEquals(0, ExtCollectionUtils.allIndexesOf(list, 1, 7).size());
 	}
 
+	@Test
+	public void testAllIndexesOfPrimitive() throws Exception {
+		final List<Integer> arrayList = ExtCollectionUtils.toList(1, 1, 2, 1, 1, 4, 1);
+		final List<Integer> linkedList = new LinkedList<>(arrayList);
+		for (final List<Integer> list : Arrays.asList(arrayList, linkedList)) {
+			assertArrayEquals(new int[] { 0, 1, 3, 4, 6 }, ExtCollectionUtils.allIndexesOfArray(list, 1, 0));
+			assertArrayEquals(new int[] { 3, 4, 6 }, ExtCollectionUtils.allIndexesOfArray(list, 1, 2));
+			assertArrayEquals(new int[] { 0, 1, 3, 4, 6 }, ExtCollectionUtils.allIndexesOfArray(list, 1, -1));
+			assertArrayEquals(new int[0], ExtCollectionUtils.allIndexesOfArray(list, 42, 0));
+			assertArrayEquals(new int[0], ExtCollectionUtils.allIndexesOfArray(list, 1, 7));
+			assertArrayEquals(new int[] { 2, 5 }, ExtCollectionUtils.allIndexesOfStream(list, 1, 0, (a, b) -> !a.equals(b)).toArray());
+			assertEquals(3, ExtCollectionUtils.allIndexesOfStream(list, 1, 2).findFirst().getAsInt());
+		}
+		assertArrayEquals(new int[0], ExtCollectionUtils.allIndexesOfArray(null, 1, 0));
+	}
+
 	@Test
 	public void testContains() throws Exception {
 		final List<Integer> list = ExtCollectionUtils.toList(1, 1, 2, 1, 1, 4, 1);
@@ -385,6 +476,364 @@ public class ExtCollectionUtilsTest {
 		assertEquals(map, ExtCollectionUtils.copy(map));
 	}
 
+	@Test
+	public void testBulkMapMutation() throws Exception {
+		final ConcurrentHashMap<Integer, String> map = new ConcurrentHashMap<>();
+		for (int i = 0; i < 20000; i++) {
+			map.put(i, String.valueOf(i % 4));
+		}
+		ExtCollectionUtils.changeMapValues(map, "0", "zero");
+		assertEquals("zero", map.get(8));
+		assertFalse(map.containsValue("0"));
+		ExtCollectionUtils.removeMapValues(map, "1", "2");
+		assertEquals(10000, map.size());
+		assertEquals(new HashSet<>(Arrays.asList("zero", "3")), new HashSet<>(map.values()));
+		ExtCollectionUtils.removeMapValues(map, Arrays.asList("ZERO"), (a, b) -> a.equalsIgnoreCase(b));
+		assertEquals(5000, map.size());
+		ExtCollectionUtils.replaceNullValuesWith(map, "null");
+		assertEquals(5000, map.size());
+
+		final Map<Integer, String> small = new HashMap<>();
+		small.put(1, null);
+		small.put(2, "a");
+		small.put(3, "b");
+		ExtCollectionUtils.replaceNullValuesWith(small, "c");
+		ExtCollectionUtils.removeMapValues(small, Arrays.asList("A"), (a, b) -> a.equalsIgnoreCase(b));
+		assertEquals(2, small.size());
+		assertEquals("c", small.get(1));
+	}
+
+	@Test
+	public void testTopK() throws Exception {
+		final List<Integer> list = new ArrayList<>();
+		for (int i = 0; i < 100000; i++) {
+			list.add((i * 7919) % 100000);
+		}
+		final Comparator<Integer> cmp = Comparator.naturalOrder();
+		assertEquals(Arrays.asList(0, 1, 2), ExtCollectionUtils.bottomK(list, 3, cmp));
+		assertEquals(Arrays.asList(99999, 99998, 99997), ExtCollectionUtils.topK(list, 3, cmp));
+		assertEquals(Arrays.asList(0, 1, 2), ExtCollectionUtils.parallelBottomK(list, 3, cmp));
+		assertEquals(Arrays.asList(99999, 99998, 99997), ExtCollectionUtils.parallelTopK(list, 3, cmp));
+		assertEquals(Arrays.asList(1, 2, 3), ExtCollectionUtils.bottomK(Arrays.asList(3, 2, 1), 5, cmp));
+		assertEquals(Arrays.asList(3, 2, 1), ExtCollectionUtils.topK(Arrays.asList(1, 3, 2), Integer.MAX_VALUE, cmp));
+		assertEquals(Arrays.asList(1, 2, 3), ExtCollectionUtils.parallelBottomK(Arrays.asList(3, 1, 2), Integer.MAX_VALUE, cmp));
+		assertEquals(Arrays.asList(3, 2, 1), ExtCollectionUtils.topK(Arrays.asList(1, 3, 2), 200_000_000, cmp));
+		assertTrue(ExtCollectionUtils.topK(list, 0, cmp).isEmpty());
+		assertTrue(ExtCollectionUtils.topK(null, 3, cmp).isEmpty());
+		try {
+			ExtCollectionUtils.topK(list, -1, cmp);
+			fail("Expected IllegalArgumentException");
+		} catch (final IllegalArgumentException ex) {
+			// expected
+		}
+
+		final List<Integer> sorted = new ArrayList<>(list);
+		sorted.sort(cmp);
+		assertEquals(sorted, ExtCollectionUtils.bottomK(list, list.size() + 1, cmp));
+		final LinkedList<Integer> linked = new LinkedList<>(list);
+		assertEquals(sorted, ExtCollectionUtils.parallelSort(new ArrayList<>(list), cmp));
+		assertTrue(linked == ExtCollectionUtils.parallelSort(linked, cmp));
+		assertEquals(sorted, linked);
+	}
+
+	@Test
+	public void testSortedSetOperations() throws Exception {
+		final Comparator<Integer> cmp = Comparator.naturalOrder();
+		final List<Integer> a = Arrays.asList(1, 2, 2, 3, 5, 7, 9);
+		final TreeSet<Integer> b = new TreeSet<>(Arrays.asList(2, 3, 4, 9, 10));
+		assertEquals(Arrays.asList(2, 3, 9), toList(ExtCollectionUtils.intersectSorted(a, b, cmp)));
+		assertEquals(Arrays.asList(1, 5, 7), toList(ExtCollectionUtils.subtractSorted(a, b, cmp)));
+		assertEquals(Arrays.asList(4, 10), toList(ExtCollectionUtils.subtractSorted(b, a, cmp)));
+		assertEquals(Arrays.asList(1, 2, 2, 3, 5, 7, 9), toList(ExtCollectionUtils.subtractSorted(a, null, cmp)));
+		assertFalse(ExtCollectionUtils.intersectSorted(a, null, cmp).hasNext());
+		assertFalse(ExtCollectionUtils.subtractSorted(null, b, cmp).hasNext());
+
+		final Iterator<Integer> it = ExtCollectionUtils.intersectSorted(Stream.iterate(0, i -> i + 2).iterator(), Stream.iterate(0, i -> i + 3).iterator(), cmp);
+		assertEquals(Integer.valueOf(0), it.next());
+		assertEquals(Integer.valueOf(6), it.next());
+		assertEquals(Integer.valueOf(12), it.next());
+		final Iterator<Integer> exhausted = ExtCollectionUtils.intersectSorted(a, b, cmp);
+		toList(exhausted);
+		assertFalse(exhausted.hasNext());
+		try {
+			exhausted.next();
+			fail("Expected NoSuchElementException");
+		} catch (final NoSuchElementException ex) {
+			// expected
+		}
+	}
+
+	private static <V> List<V> toList(final Iterator<V> it) {
+		final List<V> list = new ArrayList<>();
+		it.forEachRemaining(list::add);
+		return list;
+	}
+
+	@Test
+	public void testBloomFilterOverloads() throws Exception {
+		final List<String> b = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			b.add("b" + i);
+		}
+		final BloomFilter<String> filter = BloomFilter.of(b, 0.01);
+		assertTrue(ExtCollectionUtils.contains(b, "b42", filter));
+		assertFalse(ExtCollectionUtils.contains(b, "a42", filter));
+		assertTrue(ExtCollectionUtils.contains(b, "b42", (BloomFilter<String>) null));
+		assertEquals(Arrays.asList("a1", "a2"), ExtCollectionUtils.subtract(Arrays.asList("a1", "b1", "a2", "b999"), b, filter));
+
+		final HashingEquityComparator<String> ignoreCase = ExtCollectionUtils.hashingEquityComparator((x, y) -> x.equalsIgnoreCase(y), x -> x.toLowerCase().hashCode());
+		final BloomFilter<String> ignoreCaseFilter = BloomFilter.<String> builder().hasherOf(ignoreCase).build(b);
+		assertEquals(Arrays.asList("a1"), ExtCollectionUtils.subtract(Arrays.asList("a1", "B1"), b, ignoreCaseFilter, ignoreCase));
+		assertEquals(Arrays.asList("a1"), ExtCollectionUtils.subtract(Arrays.asList("a1", "B1"), b, ignoreCaseFilter, (x, y) -> x.equalsIgnoreCase(y)));
+	}
+
+	@Test
+	public void testSubCollectionView() throws Exception {
+		final List<Integer> list = new ArrayList<>(Arrays.asList(0, 1, 2, 3, 4, 5));
+		final List<Integer> view = ExtCollectionUtils.subListView(list, 2, 4);
+		assertEquals(Arrays.asList(2, 3), view);
+		list.set(2, 20);
+		assertEquals(Arrays.asList(20, 3), view);
+		assertEquals(Arrays.asList(4, 5), ExtCollectionUtils.subListView(list, 4, 100));
+		assertTrue(ExtCollectionUtils.subListView(list, 4, 2).isEmpty());
+		assertTrue(ExtCollectionUtils.subListView(null, 0, 2).isEmpty());
+
+		final Set<Integer> set = new TreeSet<>(Arrays.asList(0, 1, 2, 3, 4, 5));
+		final Collection<Integer> setView = ExtCollectionUtils.subCollectionView(set, -1, 3);
+		assertEquals(3, setView.size());
+		assertEquals(Arrays.asList(0, 1, 2), new ArrayList<>(setView));
+		set.remove(0);
+		assertEquals(Arrays.asList(1, 2, 3), new ArrayList<>(setView));
+		assertEquals(Arrays.asList(4, 5), ExtCollectionUtils.subCollectionView(set, 3, 10).stream().collect(Collectors.toList()));
+		assertEquals(Arrays.asList(3, 4), ExtCollectionUtils.subCollectionView(new LinkedList<>(list), 3, 5).stream().collect(Collectors.toList()));
+		assertEquals(Arrays.asList(4, 5), ExtCollectionUtils.subCollectionStream(set, 3, 10).collect(Collectors.toList()));
+		assertEquals(0, ExtCollectionUtils.subCollectionStream(set, 3, 1).count());
+		assertEquals(Arrays.asList(1, 20), ExtCollectionUtils.subCollection(list, 1, 3, ArrayList::new));
+	}
+
+	@Test
+	public void testSortByPrimitiveKey() throws Exception {
+		for (final int size : new int[] { 0, 1, 1000, 200000 }) {
+			final Random random = new Random(size);
+			final List<long[]> records = new ArrayList<>();
+			for (int i = 0; i < size; i++) {
+				records.add(new long[] { random.nextInt(5000) - 2500L + (i % 3 == 0 ? Long.MIN_VALUE / 2 : 0), i });
+			}
+			final List<long[]> expected = new ArrayList<>(records);
+			expected.sort(Comparator.comparingLong(r -> r[0]));
+			final List<long[]> actual = ExtCollectionUtils.sortByLongKey(new ArrayList<>(records), r -> r[0]);
+			for (int i = 0; i < size; i++) {
+				assertTrue(expected.get(i) == actual.get(i));
+			}
+
+			final List<long[]> expectedByInt = new ArrayList<>(records);
+			expectedByInt.sort(Comparator.comparingInt(r -> (int) r[0]));
+			final List<long[]> byInt = new ArrayList<>(ExtCollectionUtils.sortByIntKey(new LinkedList<>(records), r -> (int) r[0]));
+			for (int i = 0; i < size; i++) {
+				assertTrue(expectedByInt.get(i) == byInt.get(i));
+			}
+		}
+		assertEquals(Arrays.asList(Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE), ExtCollectionUtils.sortByIntKey(new ArrayList<>(Arrays.asList(1, Integer.MAX_VALUE, -1, 0, Integer.MIN_VALUE)), i -> i));
+		assertNull(ExtCollectionUtils.sortByLongKey((List<Long>) null, l -> l));
+
+		// large input sorted in parallel chunks, all keys share the same high bytes
+		final List<Long> sameHighBytes = new ArrayList<>();
+		final Random random = new Random(3);
+		for (int i = 0; i < 100000; i++) {
+			sameHighBytes.add(0x1234_5678_9A00_0000L + random.nextInt(1 << 20));
+		}
+		final List<Long> expected = new ArrayList<>(sameHighBytes);
+		Collections.sort(expected);
+		assertEquals(expected, ExtCollectionUtils.sortByLongKey(sameHighBytes, l -> l));
+	}
+
+	@Test
+	public void testRadixCountsToOffsets() throws Exception {
+		final int[][] counts = new int[4][256];
+		for (int c = 0; c < 4; c++) {
+			counts[c][0x42] = 1000 + c;
+		}
+		assertTrue(ExtCollectionUtils.countsToOffsets(counts, 4006));
+		assertEquals(0, counts[0][0x42]);
+		assertEquals(1000, counts[1][0x42]);
+		assertEquals(2001, counts[2][0x42]);
+		assertEquals(3003, counts[3][0x42]);
+		assertEquals(4006, counts[0][0x43]);
+
+		final int[][] mixed = new int[2][256];
+		mixed[0][1] = 2;
+		mixed[1][2] = 2;
+		assertFalse(ExtCollectionUtils.countsToOffsets(mixed, 4));
+		assertEquals(2, mixed[1][1]);
+		assertEquals(2, mixed[0][2]);
+	}
+
+	@Test
+	public void testBatches() throws Exception {
+		final AtomicInteger read = new AtomicInteger();
+		final Iterator<Integer> source = new Iterator<Integer>() {
+			@Override
+			public boolean hasNext() {
+				return true;
+			}
+
+			@Override
+			public Integer next() {
+				return read.getAndIncrement();
+			}
+		};
+		final Iterator<List<Integer>> batches = ExtCollectionUtils.batches(source, 3);
+		assertEquals(0, read.get());
+		assertEquals(Arrays.asList(0, 1, 2), batches.next());
+		assertEquals(3, read.get());
+		assertEquals(Arrays.asList(3, 4, 5), batches.next());
+
+		assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4), Arrays.asList(5)), ExtCollectionUtils.batchStream(Arrays.asList(1, 2, 3, 4, 5), 2).collect(Collectors.toList()));
+		assertEquals(0, ExtCollectionUtils.batchStream((Iterable<Integer>) null, 2).count());
+		assertFalse(ExtCollectionUtils.batches(Collections.<Integer> emptyList(), 2).hasNext());
+		assertEquals(Arrays.asList(Arrays.asList(1, 2, 3)), ExtCollectionUtils.batchStream(Arrays.asList(1, 2, 3), Integer.MAX_VALUE).collect(Collectors.toList()));
+		try {
+			ExtCollectionUtils.batches(Collections.<Integer> emptyList(), 2).next();
+			fail("Expected NoSuchElementException");
+		} catch (final NoSuchElementException ex) {
+			// expected
+		}
+		try {
+			ExtCollectionUtils.batches(Collections.<Integer> emptyList(), 0);
+			fail("Expected IllegalArgumentException");
+		} catch (final IllegalArgumentException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testHashJoinAndGroupBy() throws Exception {
+		final List<String> left = Arrays.asList("a1", "b1", "c1", "a2");
+		final List<Integer> right = Arrays.asList(97, 98, 98, 100);
+		final Function<String, Integer> leftKey = l -> (int) l.charAt(0);
+		assertEquals(Arrays.asList(Pair.of("a1", 97), Pair.of("a2", 97), Pair.of("b1", 98), Pair.of("b1", 98)), ExtCollectionUtils.hashJoin(left, right, leftKey, r -> r));
+		assertEquals(Arrays.asList(Pair.of("a1", 97), Pair.of("a2", 97)), ExtCollectionUtils.hashJoin(left, Arrays.asList(97), leftKey, r -> r));
+		assertEquals(Arrays.asList(Pair.of("a1", 97), Pair.of("b1", 98), Pair.of("b1", 98), Pair.of("c1", null), Pair.of("a2", 97)), ExtCollectionUtils.leftHashJoin(left, right, leftKey, r -> r));
+		assertEquals(Arrays.asList("c1"), ExtCollectionUtils.antiHashJoin(left, right, leftKey, r -> r));
+		assertEquals(left, ExtCollectionUtils.antiHashJoin(left, null, leftKey, r -> r));
+		assertTrue(ExtCollectionUtils.hashJoin(null, right, leftKey, r -> r).isEmpty());
+
+		final List<Integer> big = IntStream.range(0, 50000).boxed().collect(Collectors.toList());
+		assertEquals(50000, ExtCollectionUtils.hashJoin(big, IntStream.range(0, 500).boxed().collect(Collectors.toList()), i -> i % 500, i -> i).size());
+		assertEquals(49500, ExtCollectionUtils.antiHashJoin(big, Arrays.asList(0, 1, 2, 3, 4), i -> i % 500, i -> i).size());
+
+		final Map<Integer, List<String>> groups = ExtCollectionUtils.groupBy(left, leftKey);
+		assertEquals(Arrays.asList("a1", "a2"), groups.get(97));
+		assertEquals(new HashSet<>(left), ExtCollectionUtils.combineValues(groups, HashSet::new));
+		final ConcurrentMultiMap<Integer, Integer> parallelGroups = ExtCollectionUtils.parallelGroupBy(big, i -> i % 10);
+		assertEquals(10, parallelGroups.size());
+		assertEquals(5000, parallelGroups.get(3).size());
+		assertEquals(IntStream.range(0, 5000).map(i -> i * 10 + 3).boxed().collect(Collectors.toList()), new ArrayList<>(parallelGroups.get(3)));
+		assertEquals(50000, parallelGroups.valueCount());
+		assertTrue(ExtCollectionUtils.parallelGroupBy((Collection<Integer>) null, i -> i).isEmpty());
+		assertEquals(new HashSet<>(big), parallelGroups.combineValues(HashSet::new));
+	}
+
+	@Test
+	public void testDiff() throws Exception {
+		final List<String> oldValues = Arrays.asList("1:a", "2:b", "3:c", "4:d");
+		final List<String> newValues = Arrays.asList("5:e", "3:c", "2:B", "1:a");
+		final CollectionDiff<String> diff = ExtCollectionUtils.diff(oldValues, newValues, v -> v.charAt(0));
+		assertEquals(Arrays.asList("5:e"), diff.getAdded());
+		assertEquals(Arrays.asList("4:d"), diff.getRemoved());
+		assertEquals(Arrays.asList(Pair.of("2:b", "2:B")), diff.getChanged());
+		assertFalse(diff.isEmpty());
+		assertTrue(ExtCollectionUtils.diff(oldValues, Arrays.asList("2:B", "4:d", "1:a", "3:c"), v -> v.charAt(0), (x, y) -> x.equalsIgnoreCase(y)).isEmpty());
+		assertEquals(oldValues, ExtCollectionUtils.diff(oldValues, null, v -> v.charAt(0)).getRemoved());
+		try {
+			ExtCollectionUtils.diff(oldValues, Arrays.asList("1:a", "1:b"), v -> v.charAt(0));
+			fail("Expected IllegalArgumentException");
+		} catch (final IllegalArgumentException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testEditScript() throws Exception {
+		final List<Character> a = Arrays.asList('A', 'B', 'C', 'A', 'B', 'B', 'A');
+		final List<Character> b = Arrays.asList('C', 'B', 'A', 'B', 'A', 'C');
+		final List<ListEdit<Character>> edits = ExtCollectionUtils.editScript(a, b);
+		assertEquals(5, edits.stream().filter(e -> e.getType() != ListEdit.Type.EQUAL).count());
+		assertEdits(a, b, edits);
+
+		final Random random = new Random(7);
+		for (int t = 0; t < 50; t++) {
+			final List<Integer> x = random.ints(random.nextInt(30), 0, 5).boxed().collect(Collectors.toList());
+			final List<Integer> y = random.ints(random.nextInt(30), 0, 5).boxed().collect(Collectors.toList());
+			assertEdits(x, y, ExtCollectionUtils.editScript(x, y));
+		}
+		assertEquals(Arrays.asList(new ListEdit<>(ListEdit.Type.EQUAL, 0, 0, "a"), new ListEdit<>(ListEdit.Type.INSERT, -1, 1, "b")), ExtCollectionUtils.editScript(Arrays.asList("a"), Arrays.asList("a", "b")));
+		assertEquals(Arrays.asList(new ListEdit<>(ListEdit.Type.DELETE, 0, -1, "a")), ExtCollectionUtils.editScript(Arrays.asList("a"), null));
+		assertTrue(ExtCollectionUtils.editScript(null, null).isEmpty());
+
+		for (int t = 0; t < 5; t++) {
+			final List<Integer> x = random.ints(500, 0, 20).boxed().collect(Collectors.toList());
+			final List<Integer> y = new ArrayList<>(x);
+			for (int i = 0; i < 50; i++) {
+				y.set(random.nextInt(y.size()), 20 + i);
+			}
+			assertEdits(x, y, ExtCollectionUtils.editScript(x, y));
+		}
+
+		// disjoint lists - the worst case D = N + M
+		final List<Integer> left = IntStream.range(0, 3000).boxed().collect(Collectors.toList());
+		final List<Integer> right = IntStream.range(3000, 6000).boxed().collect(Collectors.toList());
+		final List<ListEdit<Integer>> disjoint = ExtCollectionUtils.editScript(left, right);
+		assertEquals(6000, disjoint.size());
+		assertEquals(3000, disjoint.stream().filter(e -> e.getType() == ListEdit.Type.DELETE).count());
+		assertEquals(3000, disjoint.stream().filter(e -> e.getType() == ListEdit.Type.INSERT).count());
+	}
+
+	private static <V> void assertEdits(final List<V> a, final List<V> b, final List<ListEdit<V>> edits) {
+		final List<V> fromA = new ArrayList<>();
+		final List<V> toB = new ArrayList<>();
+		for (final ListEdit<V> e : edits) {
+			if (e.getType() != ListEdit.Type.INSERT) {
+				assertEquals(fromA.size(), e.getOldIndex());
+				fromA.add(e.getValue());
+			}
+			if (e.getType() != ListEdit.Type.DELETE) {
+				assertEquals(toB.size(), e.getNewIndex());
+				toB.add(e.getType() == ListEdit.Type.EQUAL ? b.get(e.getNewIndex()) : e.getValue());
+				assertEquals(b.get(e.getNewIndex()), e.getValue());
+			}
+		}
+		assertEquals(a, fromA);
+		assertEquals(b, toB);
+		// the number of equal elements of the shortest edit script is the longest common subsequence
+		assertEquals(lcs(a, b), edits.stream().filter(e -> e.getType() == ListEdit.Type.EQUAL).count());
+	}
+
+	private static <V> long lcs(final List<V> a, final List<V> b) {
+		final int[][] l = new int[a.size() + 1][b.size() + 1];
+		for (int i = 1; i <= a.size(); i++) {
+			for (int j = 1; j <= b.size(); j++) {
+				l[i][j] = (a.get(i - 1).equals(b.get(j - 1)) ? l[i - 1][j - 1] + 1 : Math.max(l[i - 1][j], l[i][j - 1]));
+			}
+		}
+		return l[a.size()][b.size()];
+	}
+
+	@Test
+	public void testCopyPersistent() throws Exception {
+		final List<Integer> list = PersistentVector.of(1, 2, 3);
+		assertTrue(list == ExtCollectionUtils.copy(list));
+		assertTrue(list == ExtCollectionUtils.unmodifiableList(list));
+
+		final Set<Integer> set = PersistentHashSet.of(1, 2, 3);
+		assertTrue(set == ExtCollectionUtils.copy(set));
+		assertTrue(set == ExtCollectionUtils.unmodifiableSet(set));
+
+		final Map<Integer, String> map = PersistentHashMap.<Integer, String> empty().plus(1, "one");
+		assertTrue(map == ExtCollectionUtils.copy(map));
+		assertTrue(map == ExtCollectionUtils.unmodifiableMap(map));
+	}
+
 	@Test
 	public void testUnmodifiable() throws Exception {
 		assertNull(null, ExtCollectionUtils.unmodifiableNavigableMap(null));
@@ -405,6 +854,124 @@ public class ExtCollectionUtilsTest {
 		assertEquals(Arrays.asList(), ExtCollectionUtils.split(null, 1, ArrayList::new));
 		assertEquals(Arrays.asList(), ExtCollectionUtils.split(Arrays.asList(), 1, ArrayList::new));
 		assertEquals(Arrays.asList(), ExtCollectionUtils.split(Arrays.asList(1), -10, ArrayList::new));
+		assertEquals(Arrays.asList(Arrays.asList(1, 2, 3)), ExtCollectionUtils.split(Arrays.asList(1, 2, 3), Integer.MAX_VALUE, ArrayList::new));
+		assertEquals(Arrays.asList(Arrays.asList(1, 2, 3)), ExtCollectionUtils.splitSized(Arrays.asList(1, 2, 3), Integer.MAX_VALUE, ArrayList::new));
+	}
+
+	@Test
+	public void testMapInBatches() throws Exception {
+		final List<Integer> list = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			list.add(i);
+		}
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final AtomicInteger inFlight = new AtomicInteger();
+			final AtomicInteger maxInFlight = new AtomicInteger();
+			final List<Integer> sums = ExtCollectionUtils.mapInBatches(list, 7, batch -> {
+				maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(1);
+				} catch (final InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				inFlight.decrementAndGet();
+				return batch.stream().mapToInt(Integer::intValue).sum();
+			}, executor, 3);
+			assertEquals(143, sums.size());
+			assertEquals(Integer.valueOf(0 + 1 + 2 + 3 + 4 + 5 + 6), sums.get(0));
+			assertEquals(Integer.valueOf(994 + 995 + 996 + 997 + 998 + 999), sums.get(142));
+			assertTrue(maxInFlight.get() <= 3);
+
+			assertEquals(0, ExtCollectionUtils.mapInBatches((Iterable<Integer>) null, 7, batch -> batch.size(), executor, 3).size());
+			assertEquals(Arrays.asList(1000), ExtCollectionUtils.mapInBatches(list, Integer.MAX_VALUE, batch -> batch.size(), executor, 3));
+
+			try {
+				ExtCollectionUtils.processInBatches(list, 10, batch -> {
+					if (batch.contains(55)) {
+						throw new IllegalStateException("failed batch");
+					}
+				}, executor, 2);
+				fail("Expected CompletionException to be thrown");
+			} catch (final CompletionException ex) {
+				assertTrue(ex.getCause() instanceof IllegalStateException);
+			}
+
+			final AtomicInteger submitted = new AtomicInteger();
+			try {
+				ExtCollectionUtils.processInBatches(list, 10, batch -> {
+					submitted.incrementAndGet();
+					throw new IllegalStateException("failed batch");
+				}, executor, 1);
+				fail("Expected CompletionException to be thrown");
+			} catch (final CompletionException ex) {
+				assertEquals(1, submitted.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testProcessInBatches() throws Exception {
+		final List<Integer> list = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22);
+		final Set<Integer> processed = Collections.synchronizedSet(new HashSet<>());
+		ExtCollectionUtils.processInBatches(list, 5, processed::addAll, 4);
+		assertEquals(new HashSet<>(list), processed);
+
+		try {
+			ExtCollectionUtils.processInBatches(list, 0, processed::addAll, 4);
+			fail("Expected IllegalArgumentException to be thrown");
+		} catch (final IllegalArgumentException ex) {
+			// expected exception
+		}
+	}
+
+	@Test
+	public void testStream() throws Exception {
+		final List<Integer> list = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			list.add(i);
+		}
+		final Iterable<Integer> iterable = () -> list.iterator();
+
+		assertTrue(ExtCollectionUtils.stream(list).spliterator().hasCharacteristics(Spliterator.SIZED));
+		assertEquals(list, ExtCollectionUtils.stream(iterable).collect(Collectors.toList()));
+		assertEquals(list, ExtCollectionUtils.stream(list).collect(Collectors.toList()));
+
+		final Stream<Integer> parallel = ExtCollectionUtils.parallelStream(iterable, 100);
+		assertTrue(parallel.isParallel());
+		assertEquals(list, parallel.map(i -> i).collect(Collectors.toList()));
+		assertEquals(49995000L, ExtCollectionUtils.parallelStream(iterable, 7).mapToLong(Integer::longValue).sum());
+		assertEquals(49995000L, ExtCollectionUtils.parallelStream(iterable, Integer.MAX_VALUE).mapToLong(Integer::longValue).sum());
+		assertEquals(49995000L, ExtCollectionUtils.parallelStream(iterable, 3000).mapToLong(Integer::longValue).sum());
+		assertEquals(49995000L, ExtCollectionUtils.parallelStream(list, 7).mapToLong(Integer::longValue).sum());
+		assertEquals(0, ExtCollectionUtils.parallelStream(() -> Collections.<Integer>emptyIterator(), 7).count());
+	}
+
+	@Test
+	public void testSizedFactories() throws Exception {
+		final List<Integer> capacities = new ArrayList<>();
+		final IntFunction<ArrayList<Integer>> factory = capacity -> {
+			capacities.add(capacity);
+			return new ArrayList<>(capacity);
+		};
+
+		final Map<String, List<Integer>> map = MapBuilder.createMap("a", Arrays.asList(1, 2, 4)).put("b", Arrays.asList(2, 5, 6)).put("c", null).build();
+		assertEquals(6, ExtCollectionUtils.combineValuesSized(map, factory).size());
+		assertEquals(Arrays.asList(1, 3, 4), ExtCollectionUtils.combineSized(factory, Arrays.asList(1), null, Arrays.asList(3, 4)));
+		assertEquals(Arrays.asList(1, 2), ExtCollectionUtils.collectionSized(factory, 1, 2));
+		assertEquals(Arrays.asList(1, 2, 3), ExtCollectionUtils.addAllSized(null, Arrays.asList(1, 2, 3), factory));
+		assertEquals(Arrays.asList(2, 3), ExtCollectionUtils.subCollectionSized(Arrays.asList(0, 1, 2, 3), 2, 10, factory));
+		assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3)), ExtCollectionUtils.splitSized(Arrays.asList(1, 2, 3), 2, factory));
+		assertEquals(Arrays.asList(6, 3, 2, 3, 2, 2, 1), capacities);
+
+		assertEquals(new HashSet<>(Arrays.asList(1, 2)), ExtCollectionUtils.collectionSized(Arrays.asList(1, 2, 1), ExtCollectionUtils.hashSetFactory()));
+		assertEquals(0, ExtCollectionUtils.combineValuesSized(null, ExtCollectionUtils.hashSetFactory()).size());
+		assertEquals(16, ExtCollectionUtils.hashCapacity(0));
+		assertEquals(134, ExtCollectionUtils.hashCapacity(100));
+		final HashMap<String, Integer> hashMap = ExtCollectionUtils.<String, Integer> hashMapFactory().apply(100);
+		assertTrue(hashMap.isEmpty());
 	}
 
 	private static class BuggyEquals {
@@ -421,6 +988,7 @@ public class ExtCollectionUtilsTest {
 		final Object o3 = new BuggyEquals();
 		assertEquals(0, ExtCollectionUtils.indexOf(Arrays.asList(o1, o2, o3), o2, 0));
 		assertEquals(1, ExtCollectionUtils.indexOf(Arrays.asList(o1, o2, o3), o2, 0, new ReferenceEquityComparator<>()));
+		assertEquals(Arrays.asList(o1, o3), ExtCollectionUtils.subtract(Arrays.asList(o1, o2, o3), Arrays.asList(o2), new ReferenceEquityComparator<>()));
 	}
 
 }
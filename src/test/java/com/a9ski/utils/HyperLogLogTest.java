@@ -0,0 +1,88 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class HyperLogLogTest {
+
+	private static void assertEstimate(final long expected, final long actual, final double tolerance) {
+		assertTrue("Expected " + expected + " but was " + actual, Math.abs(actual - expected) <= expected * tolerance);
+	}
+
+	@Test
+	public void testCardinality() throws Exception {
+		final HyperLogLog hll = new HyperLogLog();
+		assertEquals(0, hll.cardinality());
+		for (int i = 0; i < 10; i++) {
+			hll.add("user-" + i);
+			hll.add("user-" + i);
+		}
+		assertEquals(10, hll.cardinality());
+		for (int i = 0; i < 1000000; i++) {
+			hll.add((long) i);
+		}
+		assertEstimate(1000010, hll.cardinality(), 0.05);
+		hll.clear();
+		assertEquals(0, hll.cardinality());
+	}
+
+	@Test
+	public void testMerge() throws Exception {
+		final HyperLogLog a = new HyperLogLog(14);
+		final HyperLogLog b = new HyperLogLog(14);
+		for (int i = 0; i < 60000; i++) {
+			a.add(i);
+			b.add(i + 30000);
+		}
+		assertEstimate(90000, a.merge(b).cardinality(), 0.03);
+		try {
+			a.merge(new HyperLogLog(10));
+			fail("Expected IllegalArgumentException");
+		} catch (final IllegalArgumentException ex) {
+			// expected
+		}
+		try {
+			new HyperLogLog(3);
+			fail("Expected IllegalArgumentException");
+		} catch (final IllegalArgumentException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testCollector() throws Exception {
+		final List<String> values = new ArrayList<>();
+		IntStream.range(0, 200000).forEach(i -> values.add("v" + (i % 50000)));
+		assertEstimate(50000, values.parallelStream().collect(HyperLogLog.collector(12)).cardinality(), 0.05);
+		assertEstimate(50000, ExtCollectionUtils.hyperLogLog(values, 12).cardinality(), 0.05);
+		assertEstimate(50000, ExtCollectionUtils.parallelHyperLogLog(values::iterator, 12, 1000).cardinality(), 0.05);
+		assertEstimate(50000, ExtCollectionUtils.countDistinctApprox(values), 0.05);
+		assertEquals(0, ExtCollectionUtils.countDistinctApprox(null));
+	}
+}
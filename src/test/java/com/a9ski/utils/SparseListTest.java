@@ -0,0 +1,90 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class SparseListTest {
+
+	@Test
+	public void testFarIndexes() throws Exception {
+		final SparseList<String> list = new SparseList<>("");
+		ExtCollectionUtils.setN(list, 5000000, "far", "");
+		assertEquals(5000001, list.size());
+		assertEquals(1, list.allocatedChunks());
+		assertEquals("far", ExtCollectionUtils.getN(list, 5000000, "x"));
+		assertEquals("", ExtCollectionUtils.getN(list, 4000000, "x"));
+		assertEquals("x", ExtCollectionUtils.getN(list, 6000000, "x"));
+		assertEquals(1, list.allocatedChunks());
+
+		list.set(5000000, "");
+		assertEquals(0, list.allocatedChunks());
+		list.set(10, "a");
+		list.add("b");
+		assertEquals(5000002, list.size());
+		assertEquals("b", list.get(5000001));
+		assertEquals(2, list.allocatedChunks());
+
+		list.setSize(11);
+		assertEquals(Arrays.asList("", "", "", "", "", "", "", "", "", "", "a"), list);
+		assertEquals(1, list.allocatedChunks());
+		list.clear();
+		assertEquals(0, list.size());
+		assertEquals(0, list.allocatedChunks());
+	}
+
+	@Test
+	public void testListContract() throws Exception {
+		final SparseList<Integer> list = new SparseList<>();
+		final List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 3000; i++) {
+			final Integer value = (i % 7 == 0 ? Integer.valueOf(i) : null);
+			list.add(value);
+			expected.add(value);
+		}
+		assertEquals(expected, list);
+		list.add(5, 42);
+		expected.add(5, 42);
+		assertEquals(Integer.valueOf(42), list.get(5));
+		assertEquals(expected, list);
+		assertEquals(expected.remove(1024), list.remove(1024));
+		assertEquals(expected, list);
+		assertEquals(expected.hashCode(), list.hashCode());
+		assertNull(list.get(1));
+
+		final SparseList<Integer> other = new SparseList<>(0);
+		ExtCollectionUtils.setN(other, 3, 1, null);
+		assertEquals(Arrays.asList(null, null, null, 1), other);
+		try {
+			other.get(4);
+			fail("Expected IndexOutOfBoundsException");
+		} catch (final IndexOutOfBoundsException ex) {
+			// expected
+		}
+	}
+}
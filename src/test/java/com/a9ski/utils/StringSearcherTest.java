@@ -0,0 +1,117 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class StringSearcherTest {
+
+	private static List<String> hits(final StringSearcher searcher, final String text) {
+		return searcher.findAll(text).stream().map(Object::toString).collect(Collectors.toList());
+	}
+
+	@Test
+	public void testFindAll() {
+		final StringSearcher searcher = StringSearcher.of("he", "she", "his", "hers", null, "he");
+		assertEquals(4, searcher.size());
+		assertEquals(Arrays.asList("she@1", "he@2", "hers@2"), hits(searcher, "ushers"));
+		assertEquals(Arrays.asList("his@0"), hits(searcher, "his"));
+		assertTrue(searcher.findAll(null).isEmpty());
+		assertTrue(searcher.findAll("").isEmpty());
+
+		final StringSearcher.Hit hit = searcher.findAll("xxhers").get(1);
+		assertEquals(2, hit.getStart());
+		assertEquals(6, hit.getEnd());
+		assertEquals("hers", hit.getNeedle());
+
+		assertEquals(Arrays.asList("a@0", "aa@0", "a@1", "aa@1", "a@2"), hits(StringSearcher.of("a", "aa"), "aaa"));
+	}
+
+	@Test
+	public void testContainsAny() {
+		final StringSearcher searcher = StringSearcher.of("password", "secret");
+		assertTrue(searcher.containsAny("user=a password=b"));
+		assertTrue(searcher.containsAny("secret"));
+		assertFalse(searcher.containsAny("SECRET"));
+		assertFalse(searcher.containsAny("secre"));
+		assertFalse(searcher.containsAny(null));
+		assertFalse(StringSearcher.of().containsAny("abc"));
+		assertTrue(StringSearcher.of("").containsAny(""));
+		assertFalse(searcher.isIgnoreCase());
+
+		final StringSearcher ignoreCase = StringSearcher.ofIgnoreCase("Password", "\u00c4rger");
+		assertTrue(ignoreCase.containsAny(new StringBuilder("PASSWORD=1")));
+		assertTrue(ignoreCase.containsAny("viel \u00e4RGER"));
+		assertEquals(Arrays.asList("Password@3"), hits(ignoreCase, "my password"));
+	}
+
+	@Test
+	public void testAgainstIndexOf() {
+		final Random rnd = new Random(42);
+		final List<String> needles = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			needles.add(randomString(rnd, 2 + rnd.nextInt(5)));
+		}
+		final StringSearcher searcher = StringSearcher.of(needles);
+		for (int t = 0; t < 50; t++) {
+			final String text = randomString(rnd, 200);
+			int expected = 0;
+			for (final String needle : new LinkedHashSet<>(needles)) {
+				for (int i = text.indexOf(needle); i >= 0; i = text.indexOf(needle, i + 1)) {
+					expected++;
+				}
+			}
+			final List<StringSearcher.Hit> hits = searcher.findAll(text);
+			assertEquals(expected, hits.size());
+			for (final StringSearcher.Hit hit : hits) {
+				assertEquals(hit.getNeedle(), text.substring(hit.getStart(), hit.getEnd()));
+			}
+			assertEquals(expected > 0, searcher.containsAny(text));
+		}
+	}
+
+	private static String randomString(final Random rnd, final int length) {
+		final StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			sb.append((char) ('a' + rnd.nextInt(4)));
+		}
+		return sb.toString();
+	}
+
+	@Test
+	public void testStringUtils() {
+		final StringSearcher searcher = StringSearcher.ofIgnoreCase("token", "key");
+		assertTrue(StringUtils.containsAnyOf("API-KEY: 1", searcher));
+		assertFalse(StringUtils.notContainsAnyOf("api-token", searcher));
+		assertTrue(StringUtils.notContainsAnyOf("nothing here", searcher));
+		assertTrue(StringUtils.notContainsAnyOf(null, searcher));
+	}
+}
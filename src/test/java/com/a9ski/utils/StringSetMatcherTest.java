@@ -0,0 +1,84 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class StringSetMatcherTest {
+
+	@Test
+	public void testMatches() {
+		final List<String> codes = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			codes.add("CODE-" + i);
+		}
+		final StringSetMatcher matcher = StringSetMatcher.of(codes);
+		assertEquals(2000, matcher.size());
+		assertTrue(matcher.matches("CODE-1999"));
+		assertTrue(matcher.matches(new StringBuilder("CODE-0")));
+		assertFalse(matcher.matches("code-0"));
+		assertFalse(matcher.matches("CODE-2000"));
+		assertFalse(matcher.matches(null));
+		assertFalse(matcher.isIgnoreCase());
+
+		final StringSetMatcher ignoreCase = StringSetMatcher.ofIgnoreCase(codes);
+		assertTrue(ignoreCase.matches("code-42"));
+		assertTrue(ignoreCase.matches(new StringBuilder("Code-1999")));
+		assertFalse(ignoreCase.matches("code-2000"));
+	}
+
+	@Test
+	public void testNullAndDuplicates() {
+		final StringSetMatcher matcher = StringSetMatcher.ofIgnoreCase("a", "A", null, "\u00c4");
+		assertEquals(3, matcher.size());
+		assertTrue(matcher.matches(null));
+		assertTrue(matcher.matches("\u00e4"));
+		assertFalse(matcher.matches(""));
+		assertEquals(0, StringSetMatcher.of((CharSequence[]) null).size());
+		assertTrue(StringSetMatcher.of("").matches(""));
+	}
+
+	@Test
+	public void testStringUtils() {
+		final StringSetMatcher matcher = StringSetMatcher.of("valar", "morgulis", null);
+		assertTrue(StringUtils.equalsAnyOf("valar", matcher));
+		assertTrue(StringUtils.notEqualsAnyOf("MORGULIS", matcher));
+		assertFalse(StringUtils.notEqualsAnyOf(null, matcher));
+
+		final StringSetMatcher ignoreCase = StringSetMatcher.ofIgnoreCase("valar", "morgulis");
+		assertTrue(StringUtils.equalsAnyIgnoreCaseOf("VALAR", ignoreCase));
+		assertFalse(StringUtils.notEqualsIgnoreCaseAnyOf("MORGULIS", ignoreCase));
+		assertTrue(StringUtils.notEqualsIgnoreCaseAnyOf(null, ignoreCase));
+		try {
+			StringUtils.notEqualsIgnoreCaseAnyOf("a", matcher);
+			fail("Expected IllegalArgumentException");
+		} catch (final IllegalArgumentException ex) {
+			// expected
+		}
+	}
+}
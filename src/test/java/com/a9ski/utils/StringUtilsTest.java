@@ -22,9 +22,12 @@ package com.a9ski.utils;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.StringWriter;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Test;
@@ -57,6 +60,9 @@ public class StringUtilsTest {
 		assertFalse(StringUtils.equalsTrim(null, "b"));
 		assertFalse(StringUtils.equalsTrim("a", null));
 		assertTrue(StringUtils.equalsTrim(null, null));
+		assertTrue(StringUtils.equalsTrim(new StringBuilder("\t a b\n"), "a b"));
+		assertTrue(StringUtils.equalsTrim("   ", ""));
+		assertFalse(StringUtils.equalsTrim("ab", "a"));
 	}
 
 	@Test
@@ -77,6 +83,8 @@ public class StringUtilsTest {
 		assertFalse(StringUtils.equalsIgnoreCaseTrim(null, "b"));
 		assertFalse(StringUtils.equalsIgnoreCaseTrim("a", null));
 		assertTrue(StringUtils.equalsIgnoreCaseTrim(null, null));
+		assertTrue(StringUtils.equalsIgnoreCaseTrim(new StringBuilder(" \u00c4bC "), "\u00e4Bc"));
+		assertFalse(StringUtils.equalsIgnoreCaseTrim("ab", " a "));
 	}
 
 	@Test
@@ -109,12 +117,20 @@ public class StringUtilsTest {
 	public void testContainsTrim() {
 		assertFalse(StringUtils.containsTrim("    abcd   ", "   bcq  "));
 		assertTrue(StringUtils.containsTrim("   abcd  ", "   bc   "));
+		assertTrue(StringUtils.containsTrim(new StringBuilder(" abcd "), " abcd"));
+		assertTrue(StringUtils.containsTrim("abcd", "   "));
+		assertFalse(StringUtils.containsTrim(" ab cd ", "b  c"));
+		assertFalse(StringUtils.containsTrim(" abc ", "abcd"));
+		assertFalse(StringUtils.containsTrim(null, "a"));
+		assertFalse(StringUtils.containsTrim("a", null));
 	}
 
 	@Test
 	public void testContainsTrimIgnoreCase() {
 		assertFalse(StringUtils.containsTrimIgnoreCase("    abcd   ", "   Bcq  "));
 		assertTrue(StringUtils.containsTrimIgnoreCase("   abcd  ", "   bC   "));
+		assertTrue(StringUtils.containsTrimIgnoreCase(new StringBuilder("xxABCD"), new StringBuilder(" cd ")));
+		assertFalse(StringUtils.containsTrimIgnoreCase(null, "a"));
 	}
 
 	@Test
@@ -151,6 +167,23 @@ public class StringUtilsTest {
 	@Test
 	public void testJoinWithFilter() {
 		assertEquals("valar morgulis = all men must die!", StringUtils.joinWithFilter(" ", null, "valar", "morgulis", "= all", "men must", "die!"));
+		assertEquals("a,,c", StringUtils.joinWithFilter(",", null, "a", null, "c"));
+		assertEquals("ac", StringUtils.joinWithFilter(null, null, "a", "c"));
+		assertEquals("", StringUtils.joinWithFilter(",", s -> false, "a", "c"));
+	}
+
+	@Test
+	public void testJoinToAppendable() throws Exception {
+		final StringBuilder sb = new StringBuilder("row:");
+		assertSame(sb, StringUtils.joinWithFilter(sb, ";", s -> s.length() > 1, Arrays.asList("a", "bb", "ccc")));
+		assertEquals("row:bb;ccc", sb.toString());
+		assertEquals("row:bb;ccc", StringUtils.joinNonBlanks(sb, ";", null).toString());
+
+		final StringWriter writer = new StringWriter();
+		assertSame(writer, StringUtils.joinNonBlanks(writer, ",", Arrays.asList("x", " ", null, "y")));
+		assertEquals("x,y", writer.toString());
+		assertEquals("a|b", StringUtils.joinNonBlanks(new StringBuilder(), "|", Arrays.asList("a", "", "b")).toString());
+		assertEquals("", StringUtils.joinWithFilter(",", s -> false, Collections.nCopies(200_000_000, "a")));
 	}
 
 	@Test
@@ -159,6 +192,41 @@ public class StringUtilsTest {
 		assertEquals(" ", StringUtils.replaceWithSingleSpace("    "));
 		assertEquals("", StringUtils.replaceWithSingleSpace(""));
 		assertNull(StringUtils.replaceWithSingleSpace(null));
+		assertEquals("a b\t\tc d", StringUtils.replaceWithSingleSpace("a  b\t\tc   d"));
+		final String normalized = " hello world ";
+		assertSame(normalized, StringUtils.replaceWithSingleSpace(normalized));
+	}
+
+	@Test
+	public void testNormalizeWhitespace() {
+		assertEquals("hello world", StringUtils.normalizeWhitespace(" \thello \n\r world\f", true, true, false));
+		assertEquals(" hello world ", StringUtils.normalizeWhitespace(" \thello \n\r world\f", false, true, false));
+		assertEquals("hello \n\r world", StringUtils.normalizeWhitespace(" \thello \n\r world\f", true, false, false));
+		final String unicodeSpaces = "\u2003a\u00a0b";
+		assertSame(unicodeSpaces, StringUtils.normalizeWhitespace(unicodeSpaces, true, true, false));
+		assertEquals("a b", StringUtils.normalizeWhitespace("\u2003a\u00a0\u3000b\u2003", true, true, true));
+		assertEquals("", StringUtils.normalizeWhitespace(" \t ", true, true, false));
+		assertNull(StringUtils.normalizeWhitespace(null, true, true, true));
+
+		final String normalized = "hello world";
+		assertSame(normalized, StringUtils.normalizeWhitespace(normalized, true, true, true));
+		final String untrimmed = " hello  world ";
+		assertSame(untrimmed, StringUtils.normalizeWhitespace(untrimmed, false, false, true));
+		assertTrue(StringUtils.isNormalizedWhitespace(" a b ", false, true, false));
+		assertFalse(StringUtils.isNormalizedWhitespace(" a b ", true, true, false));
+		assertFalse(StringUtils.isNormalizedWhitespace("a\tb", false, true, false));
+		assertTrue(StringUtils.isWhitespace('\u001c', true));
+		assertFalse(StringUtils.isWhitespace('\u001c', false));
+		assertTrue(StringUtils.isWhitespace('\u000b', false));
+		assertFalse(StringUtils.isWhitespace('\u0000', true));
+		assertEquals("a b", StringUtils.normalizeWhitespace("a\u001f\u001eb\u001c", true, true, true));
+
+		final StringBuilder buffer = new StringBuilder();
+		assertSame(buffer, StringUtils.normalizeWhitespace(new StringBuilder("  a \t b  "), true, true, false, buffer));
+		assertEquals("a b", buffer.toString());
+		buffer.setLength(0);
+		assertEquals("c", StringUtils.normalizeWhitespace(" c ", true, true, false, buffer).toString());
+		assertEquals("c", StringUtils.normalizeWhitespace(null, true, true, false, buffer).toString());
 	}
 
 	@Test
@@ -0,0 +1,96 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils.persistent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PersistentHashMapTest {
+
+	/**
+	 * Key with many hash collisions
+	 */
+	private static final class Key {
+		private final int id;
+
+		private Key(final int id) {
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			return id % 100;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			return obj instanceof Key && ((Key) obj).id == id;
+		}
+	}
+
+	@Test
+	public void testAgainstHashMap() throws Exception {
+		final Random random = new Random(42);
+		final Map<Object, Integer> expected = new HashMap<>();
+		PersistentHashMap<Object, Integer> map = PersistentHashMap.empty();
+		for (int i = 0; i < 50000; i++) {
+			final int id = random.nextInt(3000);
+			final Object key = (id % 3 == 0 ? new Key(id) : (id == 1 ? null : Integer.valueOf(id * 7919)));
+			if (random.nextInt(3) > 0) {
+				expected.put(key, i);
+				map = map.plus(key, i);
+			} else {
+				expected.remove(key);
+				map = map.minus(key);
+			}
+			assertEquals(expected.size(), map.size());
+		}
+		assertEquals(expected, map);
+		assertEquals(map, expected);
+		assertEquals(expected.hashCode(), map.hashCode());
+		for (final Object key : expected.keySet()) {
+			assertTrue(map.containsKey(key));
+			assertEquals(expected.get(key), map.get(key));
+		}
+	}
+
+	@Test
+	public void testStructuralSharing() throws Exception {
+		final PersistentHashMap<String, Integer> m1 = PersistentHashMap.<String, Integer> empty().plus("a", 1).plus("b", 2);
+		final PersistentHashMap<String, Integer> m2 = m1.plus("c", 3).minus("a");
+		assertEquals(2, m1.size());
+		assertEquals(Integer.valueOf(1), m1.get("a"));
+		assertFalse(m1.containsKey("c"));
+		assertEquals(2, m2.size());
+		assertNull(m2.get("a"));
+		assertEquals(Integer.valueOf(3), m2.get("c"));
+		assertTrue(m1 == m1.minus("x"));
+		assertTrue(m1 == PersistentHashMap.from(m1));
+		assertTrue(PersistentHashMap.<String, Integer> empty() == m1.minus("a").minus("b"));
+	}
+}
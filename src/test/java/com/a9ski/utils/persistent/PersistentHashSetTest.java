@@ -0,0 +1,46 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils.persistent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+public class PersistentHashSetTest {
+
+	@Test
+	public void testPlusMinus() throws Exception {
+		final PersistentHashSet<Integer> s1 = PersistentHashSet.of(1, 2, 3, 2);
+		final PersistentHashSet<Integer> s2 = s1.plus(4).minus(1);
+		assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), s1);
+		assertEquals(new HashSet<>(Arrays.asList(2, 3, 4)), s2);
+		assertTrue(s1.contains(1));
+		assertFalse(s2.contains(1));
+		assertTrue(s1 == s1.plus(2));
+		assertTrue(s1 == s1.minus(42));
+		assertTrue(s1 == PersistentHashSet.from(s1));
+		assertEquals(0, PersistentHashSet.from(null).size());
+	}
+}
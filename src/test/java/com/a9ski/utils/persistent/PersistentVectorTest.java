@@ -0,0 +1,107 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils.persistent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PersistentVectorTest {
+
+	@Test
+	public void testPlusAndPop() throws Exception {
+		final List<Integer> expected = new ArrayList<>();
+		PersistentVector<Integer> vector = PersistentVector.empty();
+		final List<PersistentVector<Integer>> versions = new ArrayList<>();
+		for (int i = 0; i < 40000; i++) {
+			vector = vector.plus(i);
+			expected.add(i);
+			if (i % 1024 == 0) {
+				versions.add(vector);
+			}
+		}
+		assertEquals(expected, vector);
+		assertEquals(expected.hashCode(), vector.hashCode());
+		for (int i = 0; i < versions.size(); i++) {
+			assertEquals(i * 1024 + 1, versions.get(i).size());
+			assertEquals(Integer.valueOf(i * 1024), versions.get(i).get(i * 1024));
+		}
+
+		while (!vector.isEmpty()) {
+			vector = vector.pop();
+			expected.remove(expected.size() - 1);
+			if (vector.size() % 997 == 0) {
+				assertEquals(expected, vector);
+			}
+		}
+		assertEquals(expected, vector);
+	}
+
+	@Test
+	public void testWith() throws Exception {
+		final Random random = new Random(42);
+		final List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			expected.add(i);
+		}
+		final PersistentVector<Integer> original = PersistentVector.from(expected);
+		PersistentVector<Integer> vector = original;
+		for (int i = 0; i < 2000; i++) {
+			final int index = random.nextInt(expected.size());
+			expected.set(index, -i);
+			vector = vector.with(index, -i);
+		}
+		assertEquals(expected, vector);
+		assertEquals(Integer.valueOf(4999), original.get(4999));
+		assertEquals(Integer.valueOf(0), original.get(0));
+		assertTrue(original == PersistentVector.from(original));
+	}
+
+	@Test
+	public void testImmutable() throws Exception {
+		final PersistentVector<String> vector = PersistentVector.of("a", "b");
+		assertEquals(Arrays.asList("a", "b"), vector);
+		try {
+			vector.add("c");
+			fail("Expected UnsupportedOperationException to be thrown");
+		} catch (final UnsupportedOperationException ex) {
+			// expected exception
+		}
+		try {
+			vector.get(2);
+			fail("Expected IndexOutOfBoundsException to be thrown");
+		} catch (final IndexOutOfBoundsException ex) {
+			// expected exception
+		}
+		try {
+			PersistentVector.empty().pop();
+			fail("Expected IllegalStateException to be thrown");
+		} catch (final IllegalStateException ex) {
+			// expected exception
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils.primitive;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class IntListTest {
+
+	@Test
+	public void testAddGetSet() throws Exception {
+		final IntList list = new IntList(1);
+		assertTrue(list.isEmpty());
+		for (int i = 0; i < 100; i++) {
+			list.add(i * 2);
+		}
+		assertEquals(100, list.size());
+		assertEquals(20, list.get(10));
+		assertEquals(20, list.set(10, 42));
+		assertEquals(42, list.get(10));
+		assertEquals(10, list.indexOf(42));
+		assertTrue(list.contains(42));
+		assertFalse(list.contains(43));
+		assertEquals(-1, list.indexOf(43));
+
+		assertEquals(0, list.removeAt(0));
+		assertEquals(99, list.size());
+		assertEquals(2, list.get(0));
+
+		try {
+			list.get(99);
+			fail("Expected IndexOutOfBoundsException to be thrown");
+		} catch (final IndexOutOfBoundsException ex) {
+			// expected exception
+		}
+	}
+
+	@Test
+	public void testBulkOperations() throws Exception {
+		final IntList list = IntList.of(5, 3, 1);
+		list.addAll(IntList.of(4, 2));
+		list.addAll((int[]) null);
+		assertArrayEquals(new int[] { 5, 3, 1, 4, 2 }, list.toArray());
+		assertEquals(3D, list.average(), 0.0001);
+		assertEquals(15, list.stream().sum());
+		assertEquals(Arrays.asList(5, 3, 1, 4, 2), list.toList());
+
+		list.sort();
+		assertEquals(IntList.of(1, 2, 3, 4, 5), list);
+		assertEquals(IntList.of(1, 2, 3, 4, 5).hashCode(), list.hashCode());
+		assertEquals("[1, 2, 3, 4, 5]", list.toString());
+
+		list.trimToSize();
+		list.clear();
+		assertTrue(list.isEmpty());
+		assertEquals(0D, list.average(), 0.0001);
+	}
+}
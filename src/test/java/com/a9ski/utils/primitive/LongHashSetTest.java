@@ -0,0 +1,75 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils.primitive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class LongHashSetTest {
+
+	@Test
+	public void testAddContainsRemove() throws Exception {
+		final LongHashSet set = new LongHashSet();
+		assertTrue(set.add(0));
+		assertFalse(set.add(0));
+		assertTrue(set.add(-1));
+		assertTrue(set.add(Long.MIN_VALUE));
+		assertEquals(3, set.size());
+		assertTrue(set.contains(0));
+		assertTrue(set.contains(Long.MIN_VALUE));
+		assertFalse(set.contains(1));
+		assertTrue(set.remove(0));
+		assertFalse(set.remove(0));
+		assertFalse(set.contains(0));
+		assertEquals(LongHashSet.of(-1, Long.MIN_VALUE), set);
+		set.clear();
+		assertTrue(set.isEmpty());
+	}
+
+	@Test
+	public void testAgainstHashSet() throws Exception {
+		final Random random = new Random(42);
+		final LongHashSet set = new LongHashSet();
+		final Set<Long> expected = new HashSet<>();
+		for (int i = 0; i < 100000; i++) {
+			final long value = random.nextInt(5000) * 1024L;
+			if (random.nextBoolean()) {
+				assertEquals(expected.add(value), set.add(value));
+			} else {
+				assertEquals(expected.remove(value), set.remove(value));
+			}
+		}
+		assertEquals(expected.size(), set.size());
+		for (final long value : set.toArray()) {
+			assertTrue(expected.contains(value));
+		}
+		for (final Long value : expected) {
+			assertTrue(set.contains(value));
+		}
+		assertEquals(expected.size(), set.stream().count());
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils.primitive;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class LongListTest {
+
+	@Test
+	public void testLongList() throws Exception {
+		final LongList list = new LongList(0);
+		list.add(Long.MAX_VALUE);
+		list.addAll(3L, 1L);
+		assertEquals(3, list.size());
+		assertEquals(Long.MAX_VALUE, list.get(0));
+		assertEquals(3L, list.set(1, 5L));
+		assertTrue(list.contains(5L));
+		assertFalse(list.contains(3L));
+		assertEquals(Long.MAX_VALUE, list.removeAt(0));
+		assertEquals(6L, list.sum());
+		assertEquals(3D, list.average(), 0.0001);
+
+		list.sort();
+		assertArrayEquals(new long[] { 1L, 5L }, list.toArray());
+		assertEquals(Arrays.asList(1L, 5L), list.toList());
+		assertEquals(LongList.of(1L, 5L), list);
+		assertEquals(6L, list.stream().sum());
+	}
+}
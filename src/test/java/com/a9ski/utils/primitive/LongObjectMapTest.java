@@ -0,0 +1,80 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils.primitive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LongObjectMapTest {
+
+	@Test
+	public void testPutGetRemove() throws Exception {
+		final LongObjectMap<String> map = new LongObjectMap<>();
+		assertNull(map.put(0, "zero"));
+		assertNull(map.put(1, "one"));
+		assertEquals("one", map.put(1, "uno"));
+		assertEquals(2, map.size());
+		assertEquals("zero", map.get(0));
+		assertEquals("uno", map.get(1));
+		assertEquals("none", map.getOrDefault(2, "none"));
+		assertTrue(map.containsKey(0));
+		assertFalse(map.containsKey(2));
+
+		final LongObjectMap<String> other = new LongObjectMap<>(10);
+		other.put(1, "uno");
+		other.put(0, "zero");
+		assertEquals(other, map);
+		assertEquals(other.hashCode(), map.hashCode());
+
+		assertEquals("zero", map.remove(0));
+		assertNull(map.remove(0));
+		assertEquals(1, map.size());
+		assertEquals("{1=uno}", map.toString());
+		map.clear();
+		assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void testAgainstHashMap() throws Exception {
+		final Random random = new Random(42);
+		final LongObjectMap<Integer> map = new LongObjectMap<>();
+		final Map<Long, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 100000; i++) {
+			final long key = random.nextInt(5000) * 1024L;
+			if (random.nextBoolean()) {
+				assertEquals(expected.put(key, i), map.put(key, i));
+			} else {
+				assertEquals(expected.remove(key), map.remove(key));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		map.forEach((k, v) -> assertEquals(expected.get(k), v));
+		assertEquals(expected.size(), map.keys().length);
+		assertEquals(expected.size(), map.values().size());
+	}
+}
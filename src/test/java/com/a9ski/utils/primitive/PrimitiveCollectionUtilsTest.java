@@ -0,0 +1,53 @@
+/*
+ * #%L
+ * Commons utilities
+ * %%
+ * Copyright (C) 2017 Kiril Arabadzhiyski
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.a9ski.utils.primitive;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.Test;
+
+import com.a9ski.utils.MapBuilder;
+
+public class PrimitiveCollectionUtilsTest {
+
+	@Test
+	public void testConversions() throws Exception {
+		assertEquals(IntList.of(1, 2, 3), PrimitiveCollectionUtils.toIntList(Arrays.asList(1, null, 2L, 3)));
+		assertEquals(LongList.of(1L, 2L), PrimitiveCollectionUtils.toLongList(Arrays.asList(1, 2L)));
+		assertEquals(LongList.of(), PrimitiveCollectionUtils.toLongList(null));
+		assertEquals(LongList.of(10L, 20L), PrimitiveCollectionUtils.toTimeList(Arrays.asList(new Date(10), null, new Date(20))));
+		assertEquals(LongHashSet.of(1L, 2L), PrimitiveCollectionUtils.toLongHashSet(Arrays.asList(1, 2, 2, null)));
+
+		final LongObjectMap<String> map = PrimitiveCollectionUtils.toLongObjectMap(MapBuilder.createMap(1L, "one").put(2L, "two").build());
+		assertEquals(Arrays.asList("two", "one"), PrimitiveCollectionUtils.getMapValues(map, 2L, 3L, 1L));
+	}
+
+	@Test
+	public void testSetOperations() throws Exception {
+		assertEquals(IntList.of(0, 1, 3, 4, 6), PrimitiveCollectionUtils.allIndexesOf(Arrays.asList(1, 1, 2, 1, 1, 4, 1), 1, 0));
+		assertEquals(LongList.of(3L, 4L, 3L), PrimitiveCollectionUtils.subtract(LongList.of(1L, 3L, 2L, 4L, 3L), LongList.of(1L, 2L)));
+		assertEquals(LongList.of(1L), PrimitiveCollectionUtils.subtract(LongList.of(1L), (LongList) null));
+		assertEquals(LongHashSet.of(2L, 3L), PrimitiveCollectionUtils.intersect(LongList.of(1L, 2L, 3L, 3L), LongList.of(3L, 2L, 5L)));
+		assertEquals(Arrays.asList(LongList.of(1L, 2L), LongList.of(3L)), PrimitiveCollectionUtils.split(LongList.of(1L, 2L, 3L), 2));
+	}
+}